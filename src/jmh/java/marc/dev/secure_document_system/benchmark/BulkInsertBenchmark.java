@@ -0,0 +1,107 @@
+package marc.dev.secure_document_system.benchmark;
+
+import marc.dev.secure_document_system.domain.RequestContext;
+import marc.dev.secure_document_system.entity.DocumentEntity;
+import marc.dev.secure_document_system.entity.RoleEntity;
+import marc.dev.secure_document_system.entity.UserEntity;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Persists one multi-file upload, {@value #FILES} document rows in one transaction, against
+ * in-memory H2. {@code allocationSize=1, batchSize=1} is the old mapping, one sequence call
+ * and one insert per row; {@code 50, 50} is the current pooled-lo block with JDBC batching.
+ * The allocation size is overridden with an orm.xml mapping of Auditable's id. H2 runs
+ * in-process, so the round trips saved against MySQL are not part of the timings; the
+ * {@link StatementCounter} shows how many statements each upload sends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BulkInsertBenchmark {
+    private static final int FILES = 50;
+    @Param({ "1", "50" })
+    private int allocationSize;
+    @Param({ "1", "50" })
+    private int batchSize;
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void sessionFactory() {
+        var generator = """
+                <entity-mappings xmlns="https://jakarta.ee/xml/ns/persistence/orm" version="3.1">
+                    <mapped-superclass class="marc.dev.secure_document_system.entity.Auditable" access="FIELD">
+                        <attributes>
+                            <id name="id">
+                                <generated-value strategy="SEQUENCE" generator="primary_key_seq"/>
+                                <sequence-generator name="primary_key_seq" sequence-name="primary_key_seq" allocation-size="%d"/>
+                            </id>
+                        </attributes>
+                    </mapped-superclass>
+                </entity-mappings>
+                """.formatted(allocationSize);
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(RoleEntity.class)
+                .addAnnotatedClass(UserEntity.class)
+                .addAnnotatedClass(DocumentEntity.class)
+                .addInputStream(new ByteArrayInputStream(generator.getBytes(UTF_8)))
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:bulk-" + allocationSize + "-" + batchSize + ";MODE=MySQL;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.id.optimizer.pooled.preferred", "pooled-lo")
+                .setProperty("hibernate.jdbc.batch_size", Integer.toString(batchSize))
+                .setProperty("hibernate.order_inserts", "true")
+                .setProperty("hibernate.generate_statistics", "true")
+                .buildSessionFactory();
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear() {
+        sessionFactory.inTransaction(session -> session.createMutationQuery("delete from DocumentEntity").executeUpdate());
+    }
+
+    @TearDown
+    public void close() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public void upload(StatementCounter counter) {
+        var statistics = sessionFactory.getStatistics();
+        var prepared = statistics.getPrepareStatementCount();
+        RequestContext.setUserId(1L);
+        sessionFactory.inTransaction(session -> {
+            for(var file = 0; file < FILES; file++) {
+                session.persist(DocumentEntity.builder()
+                        .documentId(UUID.randomUUID().toString())
+                        .name("file-" + file + ".pdf")
+                        .description("description")
+                        .uri("uri")
+                        .size(1024L)
+                        .formattedSize("1 KB")
+                        .icon("icon")
+                        .extension("pdf")
+                        .build());
+            }
+        });
+        counter.statements += statistics.getPrepareStatementCount() - prepared;
+        counter.uploads++;
+    }
+
+    /**
+     * Statements prepared per upload is {@code statements / uploads}; JMH sums both over
+     * the measured iterations.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class StatementCounter {
+        public long statements;
+        public long uploads;
+    }
+}
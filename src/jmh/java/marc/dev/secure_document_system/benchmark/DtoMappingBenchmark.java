@@ -0,0 +1,86 @@
+package marc.dev.secure_document_system.benchmark;
+
+import marc.dev.secure_document_system.dto.Document;
+import marc.dev.secure_document_system.dto.User;
+import marc.dev.secure_document_system.entity.Auditable;
+import marc.dev.secure_document_system.entity.CredentialEntity;
+import marc.dev.secure_document_system.entity.DocumentEntity;
+import marc.dev.secure_document_system.entity.RoleEntity;
+import marc.dev.secure_document_system.entity.UserEntity;
+import marc.dev.secure_document_system.enumeration.Authority;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.BeanUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.time.LocalDateTime.now;
+import static marc.dev.secure_document_system.utils.DocumentUtils.fromDocumentEntity;
+import static marc.dev.secure_document_system.utils.UserUtils.fromUserEntity;
+import static marc.dev.secure_document_system.utils.UserUtils.isCredentialsNonExpired;
+
+/**
+ * Maps one user and one document entity to their DTOs. The {@code beanUtils} cases are the
+ * BeanUtils.copyProperties mappers UserUtils and DocumentUtils used before, with the same
+ * follow-up setters; the {@code explicit} cases call the current mappers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DtoMappingBenchmark {
+    private final RoleEntity role = RoleEntity.builder().name(Authority.USER.name()).authorities(Authority.USER).build();
+    private final CredentialEntity credential = audited(new CredentialEntity(null, "password"));
+    private final UserEntity userEntity = audited(UserEntity.builder()
+            .userId("user-id").firstName("First").lastName("Last").email("user@example.com")
+            .loginAttempts(0).lastLogin(now()).phone("555-0100").bio("bio").imageUrl("image-url")
+            .accountNonExpired(true).accountNonLocked(true).enabled(true).mfa(false).securityStamp(0L)
+            .build());
+    private final DocumentEntity documentEntity = audited(DocumentEntity.builder()
+            .documentId("document-id").name("report.pdf").description("description").uri("uri")
+            .size(1024L).formattedSize("1 KB").icon("icon").extension("pdf").checksum("checksum")
+            .build());
+    private final User user = fromUserEntity(userEntity, role, credential);
+
+    @Benchmark
+    public User beanUtilsUser() {
+        User user = new User();
+        BeanUtils.copyProperties(userEntity, user);
+        user.setLastLogin(userEntity.getLastLogin().toString());
+        user.setCredentialsNonExpired(isCredentialsNonExpired(credential));
+        user.setCreatedAt(userEntity.getCreatedAt().toString());
+        user.setUpdatedAt(userEntity.getUpdatedAt().toString());
+        user.setRole(role.getName());
+        user.setAuthorities(role.getAuthorities().getValue());
+        return user;
+    }
+
+    @Benchmark
+    public User explicitUser() {
+        return fromUserEntity(userEntity, role, credential);
+    }
+
+    @Benchmark
+    public Document beanUtilsDocument() {
+        var document = new Document();
+        BeanUtils.copyProperties(documentEntity, document);
+        document.setOwnerName(user.getFirstName() + " " + user.getLastName());
+        document.setOwnerEmail(user.getEmail());
+        document.setOwnerPhone(user.getPhone());
+        document.setOwnerLastLogin(user.getLastLogin());
+        document.setUpdaterName(user.getFirstName() + " " + user.getLastName());
+        return document;
+    }
+
+    @Benchmark
+    public Document explicitDocument() {
+        return fromDocumentEntity(documentEntity, user, user);
+    }
+
+    private static <T extends Auditable> T audited(T auditable) {
+        auditable.setId(1L);
+        auditable.setCreatedBy(1L);
+        auditable.setUpdatedBy(1L);
+        auditable.setCreatedAt(now());
+        auditable.setUpdatedAt(now());
+        return auditable;
+    }
+}
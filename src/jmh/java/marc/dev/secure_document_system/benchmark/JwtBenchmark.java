@@ -0,0 +1,224 @@
+package marc.dev.secure_document_system.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import marc.dev.secure_document_system.cache.TokenCache;
+import marc.dev.secure_document_system.domain.Token;
+import marc.dev.secure_document_system.domain.TokenData;
+import marc.dev.secure_document_system.dto.User;
+import marc.dev.secure_document_system.securtity.JwtKeyHolder;
+import marc.dev.secure_document_system.service.TokenRevocationService;
+import marc.dev.secure_document_system.service.UserService;
+import marc.dev.secure_document_system.service.impl.JwtServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Mac;
+import javax.crypto.MacSpi;
+import javax.crypto.SecretKey;
+import java.lang.reflect.Proxy;
+import java.security.GeneralSecurityException;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.Provider;
+import java.security.Security;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.time.Instant.now;
+import static java.util.Date.from;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static marc.dev.secure_document_system.constant.Constants.USER_AUTHORITIES;
+import static marc.dev.secure_document_system.enumeration.TokenType.ACCESS;
+import static marc.dev.secure_document_system.enumeration.TokenType.REFRESH;
+
+/**
+ * Per-token cost of signing and parsing an access token. The {@code perToken*} benchmarks
+ * decode the secret and build a parser for every token, as JwtServiceImpl used to; the
+ * {@code shared*} ones go through {@link JwtKeyHolder}.
+ * <p>
+ * The {@code login*} and {@code refresh*} benchmarks run a real {@link JwtServiceImpl} and
+ * count, next to the time, the HMAC-SHA512 computations (signatures plus verifications)
+ * each login or refresh performed. {@code loginPerCookie} mints tokens the
+ * way the old createToken did, a full pair for each cookie.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+    private final String secret = Base64.getEncoder().encodeToString(UUID.randomUUID().toString().repeat(2).getBytes());
+    private final JwtKeyHolder keyHolder = new JwtKeyHolder();
+    private final User user = user();
+    private JwtServiceImpl jwtService;
+    private String token;
+    private String refreshToken;
+
+    @Setup
+    public void setUp() {
+        Security.insertProviderAt(new CountingProvider(), 1);
+        keyHolder.reload(secret);
+        token = sign(keyHolder.getKey());
+        jwtService = jwtService();
+        refreshToken = jwtService.createToken(user, REFRESH);
+    }
+
+    @Benchmark
+    public String perTokenSign() {
+        return sign(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)));
+    }
+
+    @Benchmark
+    public String sharedSign() {
+        return sign(keyHolder.getKey());
+    }
+
+    @Benchmark
+    public Claims perTokenParse() {
+        return Jwts.parser().verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret))).build().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims sharedParse() {
+        return keyHolder.getParser().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Token loginPair(HmacCounter counter) {
+        var before = CountingMac.COUNT.get();
+        var tokens = jwtService.createTokens(user);
+        counter.record(before);
+        return tokens;
+    }
+
+    @Benchmark
+    public Token loginPerCookie(HmacCounter counter) {
+        var before = CountingMac.COUNT.get();
+        var tokens = Token.builder()
+                .access(jwtService.createTokens(user).getAccess())
+                .refresh(jwtService.createTokens(user).getRefresh())
+                .build();
+        counter.record(before);
+        return tokens;
+    }
+
+    @Benchmark
+    public String refresh(HmacCounter counter) {
+        var before = CountingMac.COUNT.get();
+        TokenData tokenData = jwtService.getTokenData(refreshToken);
+        var accessToken = jwtService.createToken(tokenData.getUser(), ACCESS);
+        counter.record(before);
+        return accessToken;
+    }
+
+    /**
+     * Totals of HMAC computations and benchmark calls. JMH sums event counters over the
+     * iterations, so hmacs / calls is the count per login or per refresh.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HmacCounter {
+        public long hmacs;
+        public long calls;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hmacs = 0;
+            calls = 0;
+        }
+
+        void record(long before) {
+            hmacs += CountingMac.COUNT.get() - before;
+            calls++;
+        }
+    }
+
+    /** Verification goes through the token cache; it is disabled so every refresh verifies. */
+    private JwtServiceImpl jwtService() {
+        var userService = (UserService) Proxy.newProxyInstance(UserService.class.getClassLoader(), new Class<?>[] { UserService.class },
+                (proxy, method, args) -> "getUserByUserId".equals(method.getName()) ? user : null);
+        var revocationService = (TokenRevocationService) Proxy.newProxyInstance(TokenRevocationService.class.getClassLoader(), new Class<?>[] { TokenRevocationService.class },
+                (proxy, method, args) -> "isRevoked".equals(method.getName()) ? false : null);
+        var service = new JwtServiceImpl(userService, new TokenCache(0, 2, MINUTES), null, revocationService);
+        service.setSecret(secret);
+        service.setExpiration(120L);
+        service.reloadKey();
+        return service;
+    }
+
+    private static User user() {
+        var user = new User();
+        user.setId(1L);
+        user.setUserId("user-id");
+        user.setEmail("user@example.com");
+        user.setRole("USER");
+        user.setAuthorities(USER_AUTHORITIES);
+        user.setSecurityStamp(0L);
+        return user;
+    }
+
+    /** Puts {@link CountingMac} in front of the JDK's HmacSHA512, which jjwt signs and verifies with. */
+    private static final class CountingProvider extends Provider {
+        private CountingProvider() {
+            super("CountingHmac", "1.0", "Counts HmacSHA512 computations");
+            put("Mac.HmacSHA512", CountingMac.class.getName());
+        }
+    }
+
+    public static final class CountingMac extends MacSpi {
+        private static final AtomicLong COUNT = new AtomicLong();
+        private final Mac delegate;
+
+        public CountingMac() throws GeneralSecurityException {
+            this.delegate = Mac.getInstance("HmacSHA512", "SunJCE");
+        }
+
+        @Override
+        protected int engineGetMacLength() {
+            return delegate.getMacLength();
+        }
+
+        @Override
+        protected void engineInit(Key key, AlgorithmParameterSpec params) throws InvalidKeyException, InvalidAlgorithmParameterException {
+            delegate.init(key, params);
+        }
+
+        @Override
+        protected void engineUpdate(byte input) {
+            delegate.update(input);
+        }
+
+        @Override
+        protected void engineUpdate(byte[] input, int offset, int length) {
+            delegate.update(input, offset, length);
+        }
+
+        @Override
+        protected byte[] engineDoFinal() {
+            COUNT.incrementAndGet();
+            return delegate.doFinal();
+        }
+
+        @Override
+        protected void engineReset() {
+            delegate.reset();
+        }
+    }
+
+    private static String sign(SecretKey key) {
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject("user-id")
+                .claim("authorities", "document:create,document:read,document:update,document:delete")
+                .claim("role", "USER")
+                .issuedAt(new Date())
+                .expiration(from(now().plusSeconds(120)))
+                .signWith(key, Jwts.SIG.HS512)
+                .compact();
+    }
+}
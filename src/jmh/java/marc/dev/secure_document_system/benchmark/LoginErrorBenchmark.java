@@ -0,0 +1,65 @@
+package marc.dev.secure_document_system.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import marc.dev.secure_document_system.domain.Response;
+import marc.dev.secure_document_system.dtorequest.LoginRequest;
+import marc.dev.secure_document_system.utils.JsonUtils.ResponseTemplate;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyMap;
+import static marc.dev.secure_document_system.utils.JsonUtils.LOGIN_REQUEST_READER;
+import static marc.dev.secure_document_system.utils.JsonUtils.RESPONSE_WRITER;
+import static marc.dev.secure_document_system.utils.JsonUtils.responseTemplate;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * JSON work of one failed login: read the {@link LoginRequest} body and write the 400
+ * "Bad credentials" envelope. {@code perRequestMapper} builds a new ObjectMapper for each,
+ * as the login filter and RequestUtils used to; {@code sharedMapper} uses the cached reader
+ * and writer; {@code sharedReaderAndTemplate} is the current path, which splices time and
+ * path into the pre-serialized body. Writers close their target, so each call gets a fresh
+ * null stream. Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm}, the bytes allocated per failed login.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoginErrorBenchmark {
+    private static final String PATH = "/user/login";
+    private static final String MESSAGE = "Bad credentials";
+    private static final String ROOT_CAUSE = "BadCredentialsException: Bad credentials";
+    private final byte[] body = "{\"email\":\"user@example.com\",\"password\":\"not-the-password\"}".getBytes(UTF_8);
+    private final ResponseTemplate template = responseTemplate(BAD_REQUEST, MESSAGE, ROOT_CAUSE);
+
+    @Benchmark
+    public LoginRequest perRequestMapper() throws IOException {
+        var request = new ObjectMapper().configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, true).readValue(body, LoginRequest.class);
+        new ObjectMapper().writeValue(OutputStream.nullOutputStream(), errorResponse());
+        return request;
+    }
+
+    @Benchmark
+    public LoginRequest sharedMapper() throws IOException {
+        LoginRequest request = LOGIN_REQUEST_READER.readValue(body);
+        RESPONSE_WRITER.writeValue(OutputStream.nullOutputStream(), errorResponse());
+        return request;
+    }
+
+    @Benchmark
+    public LoginRequest sharedReaderAndTemplate() throws IOException {
+        LoginRequest request = LOGIN_REQUEST_READER.readValue(body);
+        template.write(OutputStream.nullOutputStream(), LocalDateTime.now().toString(), PATH);
+        return request;
+    }
+
+    private static Response errorResponse() {
+        return new Response(LocalDateTime.now().toString(), BAD_REQUEST.value(), PATH, BAD_REQUEST, MESSAGE, ROOT_CAUSE, emptyMap());
+    }
+}
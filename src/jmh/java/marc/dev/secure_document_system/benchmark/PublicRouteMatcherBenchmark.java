@@ -0,0 +1,51 @@
+package marc.dev.secure_document_system.benchmark;
+
+import marc.dev.secure_document_system.securtity.PublicRouteMatcher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Classifies a mix of protected and public URIs, roughly in the proportion the API sees
+ * them. {@code listContains} is the old exact-match scan in AuthorizationFilter and
+ * {@code listAndAntPatterns} adds the separate ant-pattern pass the filter chain ran on
+ * the same request; {@code trie} answers both with one lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PublicRouteMatcherBenchmark {
+    private static final String[] OLD_PUBLIC_ROUTES = { "/user/resetpassword/reset", "/user/verify/resetpassword", "/user/resetpassword", "/user/verify/qrcode", "/user/stream", "/user/id", "/user/login", "/user/register", "/user/new/password", "/user/verify", "/user/refresh/token", "/user/resetpassword", "/user/image", "/user/verify/account", "/user/verify/password", "/user/verify/code" };
+    private static final String[] OLD_PUBLIC_URLS = { "/user/resetpassword/reset/**", "/user/verify/resetpassword/**", "/user/resetpassword/**", "/user/verify/qrcode/**", "/user/login/**", "/user/verify/account/**", "/user/register/**", "/user/new/password/**", "/user/verify/**", "/user/resetpassword/**", "/user/image/**", "/user/verify/password/**" };
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+    private final List<String> uris = List.of("/documents", "/documents/search", "/documents/0b6c5f3e-1d2a-4c7e-9f1a-2b3c4d5e6f70",
+            "/user/profile", "/documents/download/report.pdf", "/user/login", "/user/image/42-256.png", "/user/verify/account", "/user/update", "/documents/upload");
+    private final PublicRouteMatcher matcher = new PublicRouteMatcher();
+
+    @Benchmark
+    public void listContains(Blackhole blackhole) {
+        for(var uri : uris) { blackhole.consume(asList(OLD_PUBLIC_ROUTES).contains(uri)); }
+    }
+
+    @Benchmark
+    public void listAndAntPatterns(Blackhole blackhole) {
+        for(var uri : uris) {
+            blackhole.consume(asList(OLD_PUBLIC_ROUTES).contains(uri));
+            var matched = false;
+            for(var pattern : OLD_PUBLIC_URLS) {
+                if(antPathMatcher.match(pattern, uri)) { matched = true; break; }
+            }
+            blackhole.consume(matched);
+        }
+    }
+
+    @Benchmark
+    public void trie(Blackhole blackhole) {
+        for(var uri : uris) { blackhole.consume(matcher.isPublic(uri)); }
+    }
+}
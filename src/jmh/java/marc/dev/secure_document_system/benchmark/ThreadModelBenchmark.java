@@ -0,0 +1,60 @@
+package marc.dev.secure_document_system.benchmark;
+
+import marc.dev.secure_document_system.domain.RequestContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of {@code requests} concurrent requests, each blocking for {@code blockMillis} the
+ * way a request waits on MySQL or SMTP, handled on Tomcat's default 200 platform threads or
+ * on one virtual thread per request as with {@code spring.threads.virtual.enabled}. Every
+ * request runs under {@link RequestContext#wrap}, as async work does. The score is the time
+ * to drain the burst; needs JDK 21.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ThreadModelBenchmark {
+    private static final int TOMCAT_MAX_THREADS = 200;
+    @Param({ "platform", "virtual" })
+    private String threads;
+    @Param({ "200", "1000", "5000" })
+    private int requests;
+    @Param({ "10" })
+    private long blockMillis;
+    private ExecutorService executor;
+
+    @Setup
+    public void executor() {
+        executor = "virtual".equals(threads) ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+    }
+
+    @TearDown
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int burst() throws InterruptedException, ExecutionException {
+        RequestContext.setUserId(1L);
+        var futures = new ArrayList<Future<?>>(requests);
+        for(var request = 0; request < requests; request++) { futures.add(executor.submit(RequestContext.wrap(this::handle))); }
+        for(var future : futures) { future.get(); }
+        return futures.size();
+    }
+
+    private void handle() {
+        if(RequestContext.getUserId() == null) { throw new IllegalStateException("RequestContext was not carried over"); }
+        try {
+            Thread.sleep(blockMillis);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
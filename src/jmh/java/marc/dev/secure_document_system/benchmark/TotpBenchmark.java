@@ -0,0 +1,66 @@
+package marc.dev.secure_document_system.benchmark;
+
+import dev.samstevens.totp.code.DefaultCodeGenerator;
+import dev.samstevens.totp.code.DefaultCodeVerifier;
+import dev.samstevens.totp.exceptions.CodeGenerationException;
+import dev.samstevens.totp.secret.DefaultSecretGenerator;
+import dev.samstevens.totp.time.SystemTimeProvider;
+import marc.dev.secure_document_system.securtity.TotpVerifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verifies TOTP codes the way verifyQrCode does. {@code perCall} builds a generator, time
+ * provider and DefaultCodeVerifier for every code, as UserServiceImpl used to;
+ * {@code shared} goes through the singleton TotpVerifier, whose replay check adds one cache
+ * insert per accepted code. Every accepted code gets its own user id so the replay cache
+ * never rejects it, which also keeps the cache full; at {@code replayCacheSize=100000} that
+ * retained set is GC-bound on a small heap. The {@code wrongCode} cases are a guessing
+ * client, which pays for all three time steps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TotpBenchmark {
+    private final String secret = new DefaultSecretGenerator().generate();
+    @Param({ "1000", "100000" })
+    private long replayCacheSize;
+    private TotpVerifier totpVerifier;
+    private final AtomicLong userIds = new AtomicLong();
+    private String code;
+    private String wrongCode;
+
+    @Setup
+    public void verifier() {
+        totpVerifier = new TotpVerifier(replayCacheSize);
+    }
+
+    @Setup(Level.Iteration)
+    public void currentCode() throws CodeGenerationException {
+        var step = Math.floorDiv(new SystemTimeProvider().getTime(), 30);
+        code = new DefaultCodeGenerator().generate(secret, step);
+        wrongCode = String.format("%06d", (Integer.parseInt(code) + 1) % 1_000_000);
+    }
+
+    @Benchmark
+    public boolean perCall() {
+        return new DefaultCodeVerifier(new DefaultCodeGenerator(), new SystemTimeProvider()).isValidCode(secret, code);
+    }
+
+    @Benchmark
+    public boolean shared() {
+        return totpVerifier.verify(Long.toString(userIds.incrementAndGet()), secret, code);
+    }
+
+    @Benchmark
+    public boolean perCallWrongCode() {
+        return new DefaultCodeVerifier(new DefaultCodeGenerator(), new SystemTimeProvider()).isValidCode(secret, wrongCode);
+    }
+
+    @Benchmark
+    public boolean sharedWrongCode() {
+        return totpVerifier.verify("user", secret, wrongCode);
+    }
+}
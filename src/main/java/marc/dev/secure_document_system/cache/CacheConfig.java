@@ -1,17 +1,41 @@
 package marc.dev.secure_document_system.cache;
 
+import marc.dev.secure_document_system.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.concurrent.TimeUnit;
 
+import static marc.dev.secure_document_system.constant.Constants.MAX_LOGIN_ATTEMPTS;
+
 
 
 @Configuration
 public class CacheConfig {
 
     @Bean
-    public CacheStore<String, Integer> userCache() {
-        return new CacheStore<>(900, TimeUnit.SECONDS);
+    public LoginAttemptTracker loginAttemptTracker(@Value("${login.attempts.maximum-size:100000}") long maximumSize,
+                                                   @Value("${login.attempts.window:900}") int window) {
+        return new LoginAttemptTracker(MAX_LOGIN_ATTEMPTS, maximumSize, window, TimeUnit.SECONDS);
+    }
+
+    @Bean
+    public CacheStore<Long, byte[]> qrCodeCache(@Value("${mfa.qrcode.cache.maximum-size:1000}") long maximumSize,
+                                                @Value("${mfa.qrcode.cache.expiration:300}") int expiration) {
+        return new CacheStore<>(expiration, TimeUnit.SECONDS, maximumSize);
+    }
+
+    @Bean
+    public TokenCache tokenCache(@Value("${jwt.cache.maximum-size:10000}") long maximumSize,
+                                 @Value("${jwt.cache.expiration:900}") int expiration) {
+        return new TokenCache(maximumSize, expiration, TimeUnit.SECONDS);
+    }
+
+    @Bean
+    public SecurityStampStore securityStampStore(UserRepository userRepository,
+                                                 @Value("${jwt.stamp.maximum-size:100000}") long maximumSize,
+                                                 @Value("${jwt.stamp.expiration:10}") int expiration) {
+        return new SecurityStampStore(userRepository, maximumSize, expiration, TimeUnit.SECONDS);
     }
 }
\ No newline at end of file
@@ -10,8 +10,13 @@ public class CacheStore<K,V> {
     private final Cache<K,V> cache;
 
     public CacheStore(int expiryDuration, TimeUnit timeUnit) {
+        this(expiryDuration, timeUnit, Long.MAX_VALUE);
+    }
+
+    public CacheStore(int expiryDuration, TimeUnit timeUnit, long maximumSize) {
         cache = CacheBuilder.newBuilder()
                 .expireAfterWrite(expiryDuration, timeUnit)
+                .maximumSize(maximumSize)
                 .concurrencyLevel(Runtime.getRuntime().availableProcessors())
                 .build();
     }
@@ -0,0 +1,87 @@
+package marc.dev.secure_document_system.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sliding-window count of login attempts per email, kept entirely in memory. Each email
+ * keeps the timestamps of its last {@code maxAttempts + 1} attempts in a ring updated with
+ * atomics, so recording and checking an attempt never takes a lock. The account is locked
+ * out while all of those attempts fall inside the window.
+ * <p>
+ * The windows exist only in this process. A restart forgets them, and with several
+ * instances each one counts only the attempts it served, so a client spread over n
+ * instances gets n times the attempts. A lock written to {@code users} is lifted on the
+ * next login once no window here holds it, which after a restart is the first login.
+ * Keys go through {@link #normalize(String)}, the form emails are also stored in.
+ */
+public class LoginAttemptTracker {
+    private final Cache<String, Window> cache;
+    private final int maxAttempts;
+    private final long windowNanos;
+
+    public LoginAttemptTracker(int maxAttempts, long maximumSize, int windowDuration, TimeUnit timeUnit) {
+        this.maxAttempts = maxAttempts;
+        this.windowNanos = timeUnit.toNanos(windowDuration);
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(windowDuration, timeUnit)
+                .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                .build();
+    }
+
+    /** Records an attempt and returns the number of attempts inside the window, this one included. */
+    public int recordAttempt(String email) {
+        try {
+            var window = cache.get(normalize(email), () -> new Window(maxAttempts + 1));
+            var now = System.nanoTime();
+            window.record(now);
+            return window.count(now - windowNanos);
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+
+    public boolean isLocked(String email) {
+        var window = cache.getIfPresent(normalize(email));
+        return window != null && window.count(System.nanoTime() - windowNanos) > maxAttempts;
+    }
+
+    public void reset(String email) {
+        cache.invalidate(normalize(email));
+    }
+
+    /** Trimmed, lower-case email. Users are stored under this form so write-behind updates match by it. */
+    public static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Window {
+        private final AtomicLongArray attempts;
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        private Window(int size) {
+            attempts = new AtomicLongArray(size);
+            for(var index = 0; index < size; index++) { attempts.set(index, Long.MIN_VALUE); }
+        }
+
+        private void record(long now) {
+            attempts.set(Math.floorMod(cursor.getAndIncrement(), attempts.length()), now);
+        }
+
+        private int count(long since) {
+            var count = 0;
+            for(var index = 0; index < attempts.length(); index++) {
+                var attempt = attempts.get(index);
+                if(attempt != Long.MIN_VALUE && attempt - since > 0) { count++; }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package marc.dev.secure_document_system.cache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import marc.dev.secure_document_system.entity.RoleEntity;
+import marc.dev.secure_document_system.repository.RoleRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toUnmodifiableMap;
+
+/**
+ * Roles change only through deployments or an admin, so they are read once at startup into
+ * an immutable map keyed by upper-case name. {@link #refresh()} swaps in a new map.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoleRegistry {
+    private final RoleRepository roleRepository;
+    private volatile Map<String, RoleEntity> roles = Map.of();
+
+    @PostConstruct
+    public void refresh() {
+        roles = roleRepository.findAll().stream()
+                .collect(toUnmodifiableMap(role -> normalize(role.getName()), identity(), (first, second) -> first));
+        log.info("Loaded {} role(s) into the role registry", roles.size());
+    }
+
+    public Optional<RoleEntity> get(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(roles.get(normalize(name)));
+    }
+
+    private static String normalize(String name) {
+        return name.toUpperCase(Locale.ROOT);
+    }
+}
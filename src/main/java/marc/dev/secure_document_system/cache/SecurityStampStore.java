@@ -0,0 +1,56 @@
+package marc.dev.secure_document_system.cache;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import marc.dev.secure_document_system.repository.UserRepository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory table of the current security stamp per user. A token whose stamp differs
+ * from the one held here is stale. Entries are reloaded from {@code users} with a
+ * single-column query when they expire or are evicted after a stamp bump.
+ * <p>
+ * A bump only evicts the entry on the instance that made it. Other instances keep
+ * accepting tokens with the old stamp until their entry expires, so
+ * {@code jwt.stamp.expiration} is the longest a locked, disabled or demoted user can keep
+ * using an existing token there. Keep it short; a reload is one indexed lookup per user.
+ */
+@Slf4j
+public class SecurityStampStore {
+    private static final long UNKNOWN_USER = -1L;
+    private final LoadingCache<String, Long> cache;
+
+    public SecurityStampStore(UserRepository userRepository, long maximumSize, int expiryDuration, TimeUnit timeUnit) {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expiryDuration, timeUnit)
+                .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                .build(CacheLoader.from(userId -> userRepository.findSecurityStampByUserId(userId).orElse(UNKNOWN_USER)));
+    }
+
+    public long get(String userId) {
+        return cache.getUnchecked(userId);
+    }
+
+    public void evict(String userId) {
+        cache.invalidate(userId);
+    }
+
+    public void evictAfterCommit(String userId) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(userId);
+            }
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package marc.dev.secure_document_system.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.Hashing;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Bounded cache of verified token claims keyed by the SHA-256 digest of the token.
+ * An entry is never served once the token's {@code exp} has passed; the token is then
+ * handed back to the loader so the parser raises the usual expiry error.
+ * Revocation is checked by the caller on every request, not here. Hit and miss counts
+ * are published as the {@code jwt.tokens} cache metrics.
+ */
+@Slf4j
+public class TokenCache implements MeterBinder {
+    private final Cache<String, Claims> cache;
+
+    public TokenCache(long maximumSize, int expiryDuration, TimeUnit timeUnit) {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expiryDuration, timeUnit)
+                .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                .recordStats()
+                .build();
+    }
+
+    public Claims get(String token, Function<String, Claims> loader) {
+        var key = digest(token);
+        var claims = cache.getIfPresent(key);
+        if(claims != null && isUnexpired(claims)) { return claims; }
+        if(claims != null) { cache.invalidate(key); }
+        claims = loader.apply(token);
+        if(isUnexpired(claims)) { cache.put(key, claims); }
+        return claims;
+    }
+
+    public void evict(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new GuavaCacheMetrics<>(cache, "jwt.tokens", Tags.empty()).bindTo(registry);
+    }
+
+    private static boolean isUnexpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().after(new Date());
+    }
+
+    private static String digest(String token) {
+        return Hashing.sha256().hashString(token, UTF_8).toString();
+    }
+}
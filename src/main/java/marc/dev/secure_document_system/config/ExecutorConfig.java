@@ -0,0 +1,24 @@
+package marc.dev.secure_document_system.config;
+
+import marc.dev.secure_document_system.domain.RequestContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor imageTaskExecutor(@Value("${image.executor.threads:2}") int threads,
+                                                    @Value("${image.executor.queue-capacity:100}") int queueCapacity) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-");
+        executor.setTaskDecorator(RequestContext::wrap);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -0,0 +1,29 @@
+package marc.dev.secure_document_system.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+
+import static marc.dev.secure_document_system.constant.Constants.STREAM_UPLOAD_PATH;
+import static org.springframework.web.servlet.DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME;
+
+@Configuration
+public class MultipartConfig {
+
+    /**
+     * Parses multipart requests up front as usual, except on the streaming upload endpoint,
+     * which reads the raw request body itself and must find it unconsumed.
+     */
+    @Bean(name = MULTIPART_RESOLVER_BEAN_NAME)
+    public MultipartResolver multipartResolver() {
+        return new StandardServletMultipartResolver() {
+            @Override
+            public boolean isMultipart(HttpServletRequest request) {
+                if(request.getRequestURI().equals(request.getContextPath() + STREAM_UPLOAD_PATH)) { return false; }
+                return super.isMultipart(request);
+            }
+        };
+    }
+}
@@ -2,17 +2,25 @@ package marc.dev.secure_document_system.constant;
 
 public class Constants {
     public static final String FILE_STORAGE = System.getProperty("user.home") + "/Downloads/uploads/";
-    public static final String[] PUBLIC_URLS = { "/user/resetpassword/reset/**", "/user/verify/resetpassword/**", "/user/resetpassword/**", "/user/verify/qrcode/**", "/user/login/**", "/user/verify/account/**", "/user/register/**", "/user/new/password/**", "/user/verify/**", "/user/resetpassword/**", "/user/image/**", "/user/verify/password/**" };
+    public static final String STREAM_UPLOAD_PATH = "/documents/upload/stream";
     public static final int NINETY_DAYS = 90;
     public static final int STRENGTH = 12;
+    public static final int MAX_LOGIN_ATTEMPTS = 5;
     public static final String BASE_PATH = "/**";
     public static final String FILE_NAME = "File-Name";
     public static final String LOGIN_PATH = "/user/login";
-    public static final String[] PUBLIC_ROUTES = { "/user/resetpassword/reset", "/user/verify/resetpassword", "/user/resetpassword", "/user/verify/qrcode", "/user/stream", "/user/id", "/user/login", "/user/register", "/user/new/password", "/user/verify", "/user/refresh/token", "/user/resetpassword", "/user/image", "/user/verify/account", "/user/verify/password", "/user/verify/code"};
+    public static final String QR_CODE_PATH = "/user/mfa/qrcode";
+    public static final String[] PUBLIC_ROUTES = { "/user/login", "/user/register", "/user/verify", "/user/resetpassword", "/user/image" };
     public static final String AUTHORITIES = "authorities";
     public static final String MARC_DEV_LLC = "MARC_DEV_LLC";
     public static final String EMPTY_VALUE = "empty";
     public static final String ROLE = "role";
+    public static final String SECURITY_STAMP = "stamp";
+    public static final String USER_ID = "uid";
+    public static final String EMAIL = "email";
+    public static final String FIRST_NAME = "firstName";
+    public static final String LAST_NAME = "lastName";
+    public static final String MFA = "mfa";
     public static final String ROLE_PREFIX = "ROLE_";
     public static final String AUTHORITY_DELIMITER = ",";
     public static final String USER_AUTHORITIES = "document:create,document:read,document:update,document:delete";
@@ -21,6 +29,8 @@ public class Constants {
     public static final String MANAGER_AUTHORITIES = "document:create,document:read,document:update,document:delete";
 
     // Query
+    public static final String SELECT_USER_CREDENTIAL_QUERY = "SELECT u.id AS id, u.createdBy AS createdBy, u.updatedBy AS updatedBy, u.userId AS userId, u.firstName AS firstName, u.lastName AS lastName, u.email AS email, u.phone AS phone, u.bio AS bio, u.imageUrl AS imageUrl, u.lastLogin AS lastLogin, u.createdAt AS createdAt, u.updatedAt AS updatedAt, u.accountNonExpired AS accountNonExpired, u.accountNonLocked AS accountNonLocked, u.enabled AS enabled, u.mfa AS mfa, u.loginAttempts AS loginAttempts, u.securityStamp AS securityStamp, r.name AS role, r.authorities AS authorities, c.id AS credentialId, c.password AS password, c.updatedAt AS credentialUpdatedAt FROM UserEntity u JOIN u.role r JOIN CredentialEntity c ON c.userEntity = u WHERE u.email = ?1";
+    public static final String UPDATE_LOGIN_QUERY = "UPDATE users SET account_non_locked = COALESCE(?, account_non_locked), login_attempts = COALESCE(?, login_attempts), last_login = COALESCE(?, last_login), updated_by = ?, updated_at = ? WHERE email = ?";
     public static final  String SELECT_DOCUMENTS_QUERY = "SELECT doc.id, doc.document_id, doc.name, doc.description, doc.uri, doc.icon, doc.size, doc.formatted_size, doc.extension, doc.reference_id, doc.created_at, doc.updated_at, CONCAT(owner.first_name, ' ', owner.last_name) AS owner_name, owner.email AS owner_email, owner.phone AS owner_phone, owner.last_login AS owner_last_login, CONCAT(updater.first_name, ' ', updater.last_name) AS updater_name FROM documents doc JOIN users owner ON owner.id = doc.created_by JOIN users updater ON updater.id = doc.updated_by";
     public static final  String SELECT_DOCUMENT_QUERY = "SELECT doc.id, doc.document_id, doc.name, doc.description, doc.uri, doc.icon, doc.size, doc.formatted_size, doc.extension, doc.reference_id, doc.created_at, doc.updated_at, CONCAT(owner.first_name, ' ', owner.last_name) AS owner_name, owner.email AS owner_email, owner.phone AS owner_phone, owner.last_login AS owner_last_login, CONCAT(updater.first_name, ' ', updater.last_name) AS updater_name FROM documents doc JOIN users owner ON owner.id = doc.created_by JOIN users updater ON updater.id = doc.updated_by WHERE doc.document_id = ?1";
     public static final String SELECT_COUNT_DOCUMENTS_QUERY = "SELECT COUNT(*) FROM documents";
@@ -41,6 +41,14 @@ public class DocumentController {
         return ResponseEntity.created(URI.create("")).body(getResponse(request, Map.of("documents", newDocuments), "Document(s) uploaded Successfully", CREATED));
     }
 
+    @PostMapping("/upload/stream")
+    @PreAuthorize("hasAnyAuthority('document:create') or hasAnyRole( 'ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<Response> streamDocuments(@AuthenticationPrincipal User user, HttpServletRequest request){
+
+        var newDocuments = documentService.saveDocuments(user.getUserId(), request);
+        return ResponseEntity.created(URI.create("")).body(getResponse(request, Map.of("documents", newDocuments), "Document(s) uploaded Successfully", CREATED));
+    }
+
     @GetMapping()
     @PreAuthorize("hasAnyAuthority('document:read') or hasAnyRole( 'ADMIN', 'SUPER_ADMIN')")
     public ResponseEntity<Response> getDocuments(@AuthenticationPrincipal User user,HttpServletRequest request,
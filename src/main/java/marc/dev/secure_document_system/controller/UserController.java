@@ -7,10 +7,12 @@ import lombok.RequiredArgsConstructor;
 import marc.dev.secure_document_system.domain.Response;
 import marc.dev.secure_document_system.dto.User;
 import marc.dev.secure_document_system.dtorequest.*;
-import marc.dev.secure_document_system.enumeration.TokenType;
 import marc.dev.secure_document_system.handle.ApiLogoutHandler;
+import marc.dev.secure_document_system.service.ImageService;
 import marc.dev.secure_document_system.service.JwtService;
 import marc.dev.secure_document_system.service.UserService;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -20,13 +22,10 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.net.URI;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 
 import java.util.concurrent.TimeUnit;
 import static java.util.Collections.emptyMap;
 import static java.util.Map.of;
-import static marc.dev.secure_document_system.constant.Constants.FILE_STORAGE;
 import static marc.dev.secure_document_system.utils.RequestUtils.getResponse;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.OK;
@@ -40,6 +39,7 @@ public class UserController {
     private final UserService userService;
     private final JwtService jwtService;
     private final ApiLogoutHandler apiLogoutHandler;
+    private final ImageService imageService;
 
     @PostMapping("/register")
     public ResponseEntity<Response> saveUser(@RequestBody @Valid UserRequest user, HttpServletRequest request) {
@@ -82,6 +82,13 @@ public class UserController {
         return ResponseEntity.ok().body(getResponse(request,   emptyMap(), "Account updated successfully", OK));
     }
 
+    @PostMapping("/roles/refresh")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<Response> refreshRoles(HttpServletRequest request) {
+        userService.refreshRoles();
+        return ResponseEntity.ok().body(getResponse(request, emptyMap(), "Roles refreshed successfully", OK));
+    }
+
     @PatchMapping("/toggle_account_expired")
     @PreAuthorize("hasAnyAuthority('user:update') or hasAnyRole( 'ADMIN', 'SUPER_ADMIN')")
     public ResponseEntity<Response> toggleAccountExpired(@AuthenticationPrincipal User user, HttpServletRequest request) {
@@ -116,6 +123,11 @@ public class UserController {
         return ResponseEntity.ok().body(getResponse(request, of("user", user), "MFA set up successfully", OK));
     }
 
+    @GetMapping(path = "/mfa/qrcode", produces = IMAGE_PNG_VALUE)
+    public ResponseEntity<byte[]> getQrCode(@AuthenticationPrincipal User userPrincipal) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(userService.getQrCodeImage(userPrincipal.getId()));
+    }
+
     @PatchMapping("/mfa/cancel")
     public ResponseEntity<Response> cancelMfa(@AuthenticationPrincipal User userPrincipal, HttpServletRequest request) {
         var user = userService.cancelMfa(userPrincipal.getId());
@@ -125,8 +137,7 @@ public class UserController {
     @PostMapping("/verify/qrcode")
     public ResponseEntity<Response> verifyQrCode(@RequestBody QrCodeRequest qrCodeRequest, HttpServletRequest request, HttpServletResponse response) {
         var user = userService.verifyQrCode(qrCodeRequest.getUserId(), qrCodeRequest.getQrCode());
-        jwtService.addCookie(response, user, TokenType.ACCESS);
-        jwtService.addCookie(response, user, TokenType.REFRESH);
+        jwtService.addCookies(response, user);
         return ResponseEntity.ok().body(getResponse(request, of("user", user), "Qr code verified", OK));
     }
 
@@ -173,8 +184,21 @@ public class UserController {
         return ResponseEntity.ok().body(getResponse(request,of("imageUrl",imageUrl), "Photo updated successfully", OK));
     }
     @GetMapping(path = "/image/{filename}", produces = {IMAGE_PNG_VALUE, IMAGE_JPEG_VALUE})
-    public byte[] getImage(@PathVariable String filename) throws IOException {
-        return Files.readAllBytes(Paths.get(FILE_STORAGE + filename));
+    public ResponseEntity<Resource> getImage(@PathVariable String filename) throws IOException {
+        var image = imageService.getProfileImage(filename);
+        // Profile links carry a per-upload timestamp, so a written variant never changes under its URL
+        if(imageService.isVariant(image)) {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                    .body(image);
+        }
+        var lastModified = image.lastModified();
+        // The original stands in for a variant that is not written yet, so clients revalidate against the ETag
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(Long.toHexString(image.contentLength()) + "-" + Long.toHexString(lastModified))
+                .lastModified(lastModified)
+                .body(image);
     }
 
     @PostMapping("/logout")
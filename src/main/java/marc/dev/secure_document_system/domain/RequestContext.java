@@ -18,4 +18,22 @@ public class RequestContext {
     public static Long getUserId() {
         return USER_ID.get();
     }
-}
\ No newline at end of file
+
+    /**
+     * Captures the caller's user id and returns a task that runs under it, restoring the
+     * worker's own value afterwards. Used as the {@code TaskDecorator} of every executor so
+     * entities saved from async work still pass the {@code Auditable} checks.
+     */
+    public static Runnable wrap(Runnable task) {
+        var userId = getUserId();
+        return () -> {
+            var previous = getUserId();
+            setUserId(userId);
+            try {
+                task.run();
+            } finally {
+                if(previous == null) { start(); } else { setUserId(previous); }
+            }
+        };
+    }
+}
@@ -3,7 +3,7 @@ package marc.dev.secure_document_system.domain;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import marc.dev.secure_document_system.dto.User;
-import marc.dev.secure_document_system.entity.CredentialEntity;
+import marc.dev.secure_document_system.enumeration.Authority;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,16 +16,19 @@ import java.util.Collection;
 public class UserPrincipal implements UserDetails {
     @Getter
     private final User user;
-    private final CredentialEntity credentialEntity;
+    private final String password;
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return AuthorityUtils.commaSeparatedStringToAuthorityList(user.getAuthorities());
+        return Authority.fromName(user.getRole())
+                .filter(authority -> authority.getValue().equals(user.getAuthorities()))
+                .map(Authority::getPermissions)
+                .orElseGet(() -> AuthorityUtils.commaSeparatedStringToAuthorityList(user.getAuthorities()));
     }
 
     @Override
     public String getPassword() {
-        return credentialEntity.getPassword();
+        return password;
     }
 
     @Override
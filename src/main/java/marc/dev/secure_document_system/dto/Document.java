@@ -18,6 +18,7 @@ public class Document {
     private String formattedSize;
     private String icon;
     private String extension;
+    private String checksum;
     private String referenceId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -1,5 +1,6 @@
 package marc.dev.secure_document_system.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 @Data
@@ -25,4 +26,8 @@ public class User {
     private boolean credentialsNonExpired;
     private boolean enabled;
     private boolean mfa;
+    @JsonIgnore
+    private Long securityStamp;
+    @JsonIgnore
+    private Integer loginAttempts;
 }
\ No newline at end of file
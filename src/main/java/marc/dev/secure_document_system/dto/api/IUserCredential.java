@@ -0,0 +1,32 @@
+package marc.dev.secure_document_system.dto.api;
+
+import marc.dev.secure_document_system.enumeration.Authority;
+
+import java.time.LocalDateTime;
+
+public interface IUserCredential {
+    Long getId();
+    Long getCreatedBy();
+    Long getUpdatedBy();
+    String getUserId();
+    String getFirstName();
+    String getLastName();
+    String getEmail();
+    String getPhone();
+    String getBio();
+    String getImageUrl();
+    LocalDateTime getLastLogin();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    Boolean getAccountNonExpired();
+    Boolean getAccountNonLocked();
+    Boolean getEnabled();
+    Boolean getMfa();
+    Integer getLoginAttempts();
+    Long getSecurityStamp();
+    String getRole();
+    Authority getAuthorities();
+    Long getCredentialId();
+    String getPassword();
+    LocalDateTime getCredentialUpdatedAt();
+}
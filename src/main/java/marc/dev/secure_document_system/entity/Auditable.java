@@ -22,7 +22,7 @@ import static java.time.LocalDateTime.now;
 @JsonIgnoreProperties(value = { "createdAt", "updatedAt" }, allowGetters = true)
 public class Auditable {
     @Id
-    @SequenceGenerator(name = "primary_key_seq", sequenceName ="primary_key_seq", allocationSize = 1)
+    @SequenceGenerator(name = "primary_key_seq", sequenceName ="primary_key_seq", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "primary_key_seq")
     @Column(name = "id", updatable = false)
     private Long id;
@@ -6,8 +6,10 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import jakarta.persistence.*;
 import lombok.*;
+import marc.dev.secure_document_system.enumeration.EventType;
 import org.hibernate.annotations.OnDelete;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_DEFAULT;
@@ -20,10 +22,13 @@ import static org.hibernate.annotations.OnDeleteAction.CASCADE;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "confirmations")
+@Table(name = "confirmations", indexes = @Index(name = "idx_confirmations_created_at", columnList = "createdAt"))
 @JsonInclude(NON_DEFAULT)
 public class ConfirmationEntity extends Auditable{
+    @Column(unique = true, nullable = false, updatable = false)
     private String token;
+    @Enumerated(EnumType.STRING)
+    private EventType type;
     @OneToOne(targetEntity = UserEntity.class, fetch = FetchType.EAGER)
     @JoinColumn(name = "user_id", nullable = false)
     @OnDelete(action = CASCADE)
@@ -31,10 +36,13 @@ public class ConfirmationEntity extends Auditable{
     @JsonProperty("user_id")
     private UserEntity userEntity;
 
-    public ConfirmationEntity(UserEntity userEntity){
+    public ConfirmationEntity(UserEntity userEntity, EventType type){
         this.userEntity = userEntity;
+        this.type = type;
         this.token = UUID.randomUUID().toString();
     }
 
-
+    public boolean isExpired(long ttlSeconds) {
+        return getCreatedAt() != null && getCreatedAt().plusSeconds(ttlSeconds).isBefore(LocalDateTime.now());
+    }
 }
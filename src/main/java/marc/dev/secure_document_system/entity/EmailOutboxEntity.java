@@ -0,0 +1,37 @@
+package marc.dev.secure_document_system.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.persistence.*;
+import lombok.*;
+import marc.dev.secure_document_system.enumeration.OutboxStatus;
+
+import java.time.LocalDateTime;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_DEFAULT;
+
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "email_outbox", indexes = @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, nextAttemptAt"))
+@JsonInclude(NON_DEFAULT)
+public class EmailOutboxEntity extends Auditable {
+    @Column(nullable = false)
+    private String recipient;
+    @Column(nullable = false)
+    private String subject;
+    @Column(columnDefinition = "text", nullable = false)
+    private String body;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status;
+    private int attempts;
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime sentAt;
+    @Column(length = 1024)
+    private String lastError;
+}
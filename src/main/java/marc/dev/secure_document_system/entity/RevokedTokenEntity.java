@@ -0,0 +1,28 @@
+package marc.dev.secure_document_system.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_DEFAULT;
+
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "revoked_tokens", indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt"))
+@JsonInclude(NON_DEFAULT)
+public class RevokedTokenEntity extends Auditable {
+    @Column(updatable = false, unique = true, nullable = false)
+    private String tokenId;
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
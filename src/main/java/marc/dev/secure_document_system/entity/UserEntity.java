@@ -35,11 +35,10 @@ public class UserEntity extends Auditable{
     private boolean accountNonLocked;
     private boolean enabled;
     private boolean mfa;
+    private Long securityStamp;
     @JsonIgnore
     @Column(columnDefinition = "text")
     private String qrCodeSecret;
-    @Column(length = 4024)
-    private String qrCodeImageUri;
     @ManyToOne(fetch = EAGER)
     @JoinTable(
             name = "user_roles",
@@ -1,5 +1,16 @@
 package marc.dev.secure_document_system.enumeration;
 
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toUnmodifiableMap;
 import static marc.dev.secure_document_system.constant.Constants.*;
 
 public enum Authority {
@@ -8,13 +19,45 @@ public enum Authority {
     SUPER_ADMIN(SUPER_ADMIN_AUTHORITIES),
     MANAGER(MANAGER_AUTHORITIES);
 
+    private static final Map<String, Authority> BY_NAME = Stream.of(values()).collect(toUnmodifiableMap(Authority::name, identity()));
+
     private final String value;
+    private final List<GrantedAuthority> permissions;
+    private final List<GrantedAuthority> grantedAuthorities;
 
     Authority(String value) {
         this.value = value;
+        this.permissions = GrantedAuthorities.of(value);
+        this.grantedAuthorities = GrantedAuthorities.of(value + AUTHORITY_DELIMITER + ROLE_PREFIX + name());
     }
 
     public String getValue() {
         return this.value;
     }
-}
\ No newline at end of file
+
+    /** Permissions of this authority, e.g. {@code document:read}. */
+    public List<GrantedAuthority> getPermissions() {
+        return this.permissions;
+    }
+
+    /** Permissions of this authority plus its {@code ROLE_} authority. */
+    public List<GrantedAuthority> getGrantedAuthorities() {
+        return this.grantedAuthorities;
+    }
+
+    /** Resolves a role name such as {@code MANAGER}; authority strings are shared between roles. */
+    public static Optional<Authority> fromName(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(BY_NAME.get(name));
+    }
+
+    private static final class GrantedAuthorities {
+        private static final Map<String, GrantedAuthority> INTERNED = new ConcurrentHashMap<>();
+
+        private static List<GrantedAuthority> of(String value) {
+            return Stream.of(value.split(AUTHORITY_DELIMITER))
+                    .map(String::trim)
+                    .map(authority -> INTERNED.computeIfAbsent(authority, SimpleGrantedAuthority::new))
+                    .toList();
+        }
+    }
+}
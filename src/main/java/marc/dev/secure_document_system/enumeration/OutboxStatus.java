@@ -0,0 +1,6 @@
+package marc.dev.secure_document_system.enumeration;
+
+
+public enum OutboxStatus {
+    PENDING, SENT, DEAD
+}
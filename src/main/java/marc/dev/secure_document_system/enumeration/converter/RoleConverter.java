@@ -4,10 +4,13 @@ import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 import marc.dev.secure_document_system.enumeration.Authority;
 
-import java.util.stream.Stream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 
 @Converter(autoApply = true)
 public class RoleConverter implements AttributeConverter<Authority, String> {
+    private static final Map<String, Authority> BY_VALUE = byValue();
 
     @Override
     public String convertToDatabaseColumn(Authority authority) {
@@ -22,10 +25,19 @@ public class RoleConverter implements AttributeConverter<Authority, String> {
         if(code == null) {
             return null;
         }
-        return Stream.of(Authority.values())
-                .filter(authority -> authority.getValue().equals(code))
-                .findFirst()
-                .orElseThrow(IllegalArgumentException::new);
+        return Optional.ofNullable(BY_VALUE.get(code)).orElseThrow(IllegalArgumentException::new);
 
     }
+
+    /**
+     * USER and MANAGER store the same string. The first constant in declaration order wins,
+     * which is what the previous scan over {@link Authority#values()} returned.
+     */
+    private static Map<String, Authority> byValue() {
+        var byValue = new HashMap<String, Authority>();
+        for(var authority : Authority.values()) {
+            byValue.putIfAbsent(authority.getValue(), authority);
+        }
+        return Map.copyOf(byValue);
+    }
 }
@@ -23,6 +23,8 @@ import static marc.dev.secure_document_system.utils.RequestUtils.handleErrorResp
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
 
 @RestControllerAdvice
 @RequiredArgsConstructor
@@ -51,6 +53,20 @@ public class HandleException extends ResponseEntityExceptionHandler implements E
 
     }
 
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Response> serviceBusyException(ServiceBusyException exception){
+        log.error(String.format("ServiceBusyException(: %s", exception.getMessage()));
+        return  new ResponseEntity<>(handleErrorResponse(exception.getMessage(), getRootCauseMessage(exception), request, SERVICE_UNAVAILABLE),SERVICE_UNAVAILABLE);
+
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Response> tooManyRequestsException(TooManyRequestsException exception){
+        log.error(String.format("TooManyRequestsException(: %s", exception.getMessage()));
+        return  ResponseEntity.status(TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds())).body(handleErrorResponse(exception.getMessage(), getRootCauseMessage(exception), request, TOO_MANY_REQUESTS));
+
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<Response> badCredentialsException(BadCredentialsException exception){
         log.error(String.format("BadCredentialsException(: %s", exception.getMessage()));
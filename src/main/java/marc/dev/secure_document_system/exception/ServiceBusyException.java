@@ -0,0 +1,7 @@
+package marc.dev.secure_document_system.exception;
+
+
+
+public class ServiceBusyException extends ApiException {
+    public ServiceBusyException(String message) { super(message); }
+}
@@ -0,0 +1,13 @@
+package marc.dev.secure_document_system.exception;
+
+import lombok.Getter;
+
+@Getter
+public class TooManyRequestsException extends ApiException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
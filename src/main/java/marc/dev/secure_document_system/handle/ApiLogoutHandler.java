@@ -22,6 +22,8 @@ public class ApiLogoutHandler implements LogoutHandler {
     public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
         var logoutHandler = new SecurityContextLogoutHandler();
         logoutHandler.logout(request, response, authentication);
+        jwtService.extractToken(request, ACCESS.getValue()).ifPresent(jwtService::revokeToken);
+        jwtService.extractToken(request, REFRESH.getValue()).ifPresent(jwtService::revokeToken);
         jwtService.removeCookie(request,response, ACCESS.getValue());
         jwtService.removeCookie(request,response, REFRESH.getValue());
 
@@ -0,0 +1,50 @@
+package marc.dev.secure_document_system.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import marc.dev.secure_document_system.repository.ConfirmationRepository;
+import marc.dev.secure_document_system.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import static java.time.LocalDateTime.now;
+import static marc.dev.secure_document_system.enumeration.EventType.REGISTRATION;
+
+/**
+ * Removes confirmations older than their TTL, together with users who registered but never
+ * verified their account. Work is done in bounded batches, each in its own transaction, so
+ * a large backlog never holds long locks on {@code users} or {@code confirmations}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConfirmationSweeper {
+    private final ConfirmationRepository confirmationRepository;
+    private final UserRepository userRepository;
+
+    @Value("${confirmation.ttl:86400}")
+    private long ttl;
+    @Value("${confirmation.sweep.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${confirmation.sweep.interval:3600000}", initialDelayString = "${confirmation.sweep.interval:3600000}")
+    public void sweep() {
+        var cutoff = now().minusSeconds(ttl);
+        var users = 0;
+        var batch = PageRequest.ofSize(batchSize);
+        for(var unverified = confirmationRepository.findUnverifiedUsers(REGISTRATION, cutoff, batch); !unverified.isEmpty();
+            unverified = confirmationRepository.findUnverifiedUsers(REGISTRATION, cutoff, batch)) {
+            userRepository.deleteAll(unverified);
+            users += unverified.size();
+        }
+        var confirmations = 0;
+        for(var expired = confirmationRepository.findExpiredIds(cutoff, batch); !expired.isEmpty();
+            expired = confirmationRepository.findExpiredIds(cutoff, batch)) {
+            confirmationRepository.deleteAllByIdInBatch(expired);
+            confirmations += expired.size();
+        }
+        if(users > 0 || confirmations > 0) { log.info("Purged {} unverified user(s) and {} expired confirmation(s)", users, confirmations); }
+    }
+}
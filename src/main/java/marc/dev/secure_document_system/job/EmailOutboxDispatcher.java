@@ -0,0 +1,146 @@
+package marc.dev.secure_document_system.job;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import marc.dev.secure_document_system.entity.EmailOutboxEntity;
+import marc.dev.secure_document_system.repository.EmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.LocalDateTime.now;
+import static marc.dev.secure_document_system.enumeration.OutboxStatus.DEAD;
+import static marc.dev.secure_document_system.enumeration.OutboxStatus.PENDING;
+import static marc.dev.secure_document_system.enumeration.OutboxStatus.SENT;
+import static org.apache.commons.lang3.StringUtils.abbreviate;
+import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
+
+/**
+ * Drains {@code email_outbox}. Each batch is claimed with {@code FOR UPDATE SKIP LOCKED} so
+ * several instances can run side by side, and is sent in a single {@link JavaMailSender#send}
+ * call, which reuses one SMTP connection for the whole batch. Failed messages are retried
+ * with exponential backoff and marked {@code DEAD} after the last attempt.
+ */
+@Slf4j
+@Component
+public class EmailOutboxDispatcher {
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender sender;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter dead;
+    private final Timer batchTime;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+    @Value("${email.outbox.max-attempts:8}")
+    private int maxAttempts;
+    @Value("${email.outbox.initial-backoff:30}")
+    private long initialBackoff;
+    @Value("${email.outbox.max-backoff:3600}")
+    private long maxBackoff;
+    @Value("${email.outbox.retention:604800}")
+    private long retention;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository, JavaMailSender sender,
+                                 TransactionTemplate transactionTemplate, MeterRegistry registry) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.sender = sender;
+        this.transactionTemplate = transactionTemplate;
+        this.sent = Counter.builder("email.outbox.sent").description("Emails delivered").register(registry);
+        this.retried = Counter.builder("email.outbox.retried").description("Email deliveries scheduled for retry").register(registry);
+        this.dead = Counter.builder("email.outbox.dead").description("Emails given up on after the last attempt").register(registry);
+        this.batchTime = Timer.builder("email.outbox.batch.time").description("Time spent sending one outbox batch").register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.interval:5000}")
+    public void dispatch() {
+        Integer claimed;
+        do {
+            claimed = transactionTemplate.execute(status -> dispatchBatch());
+        } while(claimed != null && claimed == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval:3600000}", initialDelayString = "${email.outbox.purge-interval:3600000}")
+    public void purgeSent() {
+        var purged = transactionTemplate.execute(status -> emailOutboxRepository.deleteSentBefore(SENT, now().minusSeconds(retention)));
+        if(purged != null && purged > 0) { log.info("Purged {} sent email(s) from the outbox", purged); }
+    }
+
+    private int dispatchBatch() {
+        var batch = emailOutboxRepository.claimDue(now(), batchSize);
+        if(!batch.isEmpty()) { batchTime.record(() -> send(batch)); }
+        return batch.size();
+    }
+
+    private void send(List<EmailOutboxEntity> batch) {
+        var messages = new LinkedHashMap<MimeMessage, EmailOutboxEntity>();
+        var failures = new IdentityHashMap<EmailOutboxEntity, Exception>();
+        for(var email : batch) {
+            try {
+                messages.put(toMimeMessage(email), email);
+            } catch (MessagingException exception) {
+                failures.put(email, exception);
+            }
+        }
+        try {
+            if(!messages.isEmpty()) { sender.send(messages.keySet().toArray(MimeMessage[]::new)); }
+        } catch (MailSendException exception) {
+            if(exception.getFailedMessages().isEmpty()) { messages.values().forEach(email -> failures.put(email, exception)); }
+            exception.getFailedMessages().forEach((message, cause) -> {
+                var email = messages.get(message);
+                if(email != null) { failures.put(email, cause); }
+            });
+        } catch (MailException exception) {
+            messages.values().forEach(email -> failures.put(email, exception));
+        }
+        var delivered = batch.stream().filter(email -> !failures.containsKey(email)).map(EmailOutboxEntity::getId).toList();
+        if(!delivered.isEmpty()) {
+            emailOutboxRepository.markSent(delivered, SENT, now());
+            sent.increment(delivered.size());
+        }
+        failures.forEach(this::fail);
+    }
+
+    private void fail(EmailOutboxEntity email, Exception cause) {
+        var attempts = email.getAttempts() + 1;
+        var error = abbreviate(getRootCauseMessage(cause), 1024);
+        if(attempts >= maxAttempts) {
+            emailOutboxRepository.markFailed(email.getId(), DEAD, attempts, email.getNextAttemptAt(), error);
+            dead.increment();
+            log.error("Giving up on email {} to {} after {} attempt(s): {}", email.getId(), email.getRecipient(), attempts, error);
+        } else {
+            var backoff = Math.min(maxBackoff, initialBackoff << Math.min(attempts - 1, 20));
+            emailOutboxRepository.markFailed(email.getId(), PENDING, attempts, now().plusSeconds(backoff), error);
+            retried.increment();
+            log.warn("Email {} failed, retrying in {}s: {}", email.getId(), backoff, error);
+        }
+    }
+
+    private MimeMessage toMimeMessage(EmailOutboxEntity email) throws MessagingException {
+        var message = sender.createMimeMessage();
+        var helper = new MimeMessageHelper(message, UTF_8.name());
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody());
+        return message;
+    }
+}
@@ -0,0 +1,74 @@
+package marc.dev.secure_document_system.job;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Streams {@code jdk.VirtualThreadPinned} JFR events while virtual threads are enabled. A
+ * virtual thread that blocks inside {@code synchronized} code or a native call, which
+ * includes parts of the JDBC driver, keeps its carrier thread busy. Each pin longer than
+ * the threshold is counted, timed and logged with its top frames so the offending code
+ * can be found without attaching a profiler.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private final Counter pinned;
+    private final Timer pinnedTime;
+    private RecordingStream stream;
+
+    @Value("${virtual-threads.pinning.threshold:20}")
+    private long threshold;
+    @Value("${virtual-threads.pinning.stack-depth:8}")
+    private int stackDepth;
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry) {
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned").description("Virtual threads that pinned their carrier").register(registry);
+        this.pinnedTime = Timer.builder("jvm.threads.virtual.pinned.time").description("Time a virtual thread kept its carrier pinned").register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(threshold)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Watching for virtual thread pinning longer than {} ms", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if(stream != null) { stream.close(); }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        pinnedTime.record(event.getDuration());
+        var thread = event.getThread() == null ? "unknown" : event.getThread().getJavaName();
+        var frames = event.getStackTrace() == null ? "" : event.getStackTrace().getFrames().stream()
+                .limit(stackDepth)
+                .map(VirtualThreadPinningMonitor::describe)
+                .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+        log.warn("Virtual thread {} pinned its carrier for {} ms{}", thread, event.getDuration().toMillis(), frames);
+    }
+
+    private static String describe(RecordedFrame frame) {
+        var method = frame.getMethod();
+        return method.getType().getName() + "." + method.getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -3,9 +3,14 @@ package marc.dev.secure_document_system.repository;
 
 import marc.dev.secure_document_system.entity.ConfirmationEntity;
 import marc.dev.secure_document_system.entity.UserEntity;
+import marc.dev.secure_document_system.enumeration.EventType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -14,4 +19,8 @@ import java.util.Optional;
 public interface ConfirmationRepository extends JpaRepository<ConfirmationEntity, Long> {
     Optional<ConfirmationEntity> findByToken(String token);
     Optional<ConfirmationEntity> findByUserEntity(UserEntity userEntity);
+    @Query("SELECT c.id FROM ConfirmationEntity c WHERE c.createdAt < ?1")
+    List<Long> findExpiredIds(LocalDateTime cutoff, Pageable pageable);
+    @Query("SELECT c.userEntity FROM ConfirmationEntity c WHERE c.type = ?1 AND c.createdAt < ?2 AND c.userEntity.enabled = false")
+    List<UserEntity> findUnverifiedUsers(EventType type, LocalDateTime cutoff, Pageable pageable);
 }
\ No newline at end of file
@@ -1,10 +1,15 @@
 package marc.dev.secure_document_system.repository;
 
 
+import jakarta.transaction.Transactional;
 import marc.dev.secure_document_system.entity.CredentialEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -12,4 +17,10 @@ import java.util.Optional;
 @Repository
 public interface CredentialRepository extends JpaRepository<CredentialEntity, Long> {
     Optional<CredentialEntity> getCredentialByUserEntityId(Long userId);
+    @Query("SELECT c FROM CredentialEntity c JOIN FETCH c.userEntity u JOIN FETCH u.role WHERE u.id IN ?1")
+    List<CredentialEntity> findAllByUserEntityIdIn(Collection<Long> userIds);
+    @Transactional
+    @Modifying
+    @Query("UPDATE CredentialEntity c SET c.password = ?2 WHERE c.id = ?1")
+    int updatePassword(Long id, String password);
 }
@@ -0,0 +1,29 @@
+package marc.dev.secure_document_system.repository;
+
+
+import marc.dev.secure_document_system.entity.EmailOutboxEntity;
+import marc.dev.secure_document_system.enumeration.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxEntity, Long> {
+    @Query(value = "SELECT * FROM email_outbox WHERE status = 'PENDING' AND next_attempt_at <= ?1 ORDER BY id LIMIT ?2 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutboxEntity> claimDue(LocalDateTime now, int limit);
+    @Modifying
+    @Query("UPDATE EmailOutboxEntity e SET e.status = ?2, e.sentAt = ?3, e.attempts = e.attempts + 1 WHERE e.id IN ?1")
+    int markSent(Collection<Long> ids, OutboxStatus status, LocalDateTime sentAt);
+    @Modifying
+    @Query("UPDATE EmailOutboxEntity e SET e.status = ?2, e.attempts = ?3, e.nextAttemptAt = ?4, e.lastError = ?5 WHERE e.id = ?1")
+    int markFailed(Long id, OutboxStatus status, int attempts, LocalDateTime nextAttemptAt, String lastError);
+    @Modifying
+    @Query("DELETE FROM EmailOutboxEntity e WHERE e.status = ?1 AND e.sentAt < ?2")
+    int deleteSentBefore(OutboxStatus status, LocalDateTime cutoff);
+}
@@ -0,0 +1,24 @@
+package marc.dev.secure_document_system.repository;
+
+
+import jakarta.transaction.Transactional;
+import marc.dev.secure_document_system.entity.RevokedTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, Long> {
+    boolean existsByTokenId(String tokenId);
+    @Query("SELECT r.tokenId FROM RevokedTokenEntity r WHERE r.expiresAt > ?1")
+    List<String> findActiveTokenIds(LocalDateTime now);
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedTokenEntity r WHERE r.expiresAt <= ?1")
+    int deleteExpired(LocalDateTime now);
+}
@@ -0,0 +1,78 @@
+package marc.dev.secure_document_system.repository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import marc.dev.secure_document_system.domain.RequestContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.time.LocalDateTime.now;
+import static marc.dev.secure_document_system.constant.Constants.UPDATE_LOGIN_QUERY;
+
+/**
+ * Write-behind buffer for login bookkeeping on {@code users}. Updates are coalesced per
+ * email in memory and flushed as one JDBC batch on a short schedule. Callers decide the
+ * lock state; a null value leaves that column as it is. The user in the request context
+ * at enqueue time, and the enqueue time, are written as {@code updated_by} and
+ * {@code updated_at}, since this bypasses the entity audit callbacks.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class UserLoginWriter {
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, LoginUpdate> pending = new ConcurrentHashMap<>();
+
+    @Value("${login.write-behind.batch-size:100}")
+    private int batchSize;
+
+    public void enqueue(String email, Integer loginAttempts, Boolean accountNonLocked, LocalDateTime lastLogin) {
+        var updatedBy = Objects.requireNonNullElse(RequestContext.getUserId(), 0L);
+        pending.merge(email, new LoginUpdate(loginAttempts, accountNonLocked, lastLogin, updatedBy, now()), LoginUpdate::then);
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${login.write-behind.interval:1000}")
+    public void flush() {
+        var updates = new ArrayList<Map.Entry<String, LoginUpdate>>();
+        for(var email : pending.keySet()) {
+            var update = pending.remove(email);
+            if(update != null) { updates.add(Map.entry(email, update)); }
+        }
+        if(updates.isEmpty()) { return; }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LOGIN_QUERY, updates, batchSize, (statement, entry) -> {
+                var update = entry.getValue();
+                statement.setObject(1, update.accountNonLocked(), Types.BOOLEAN);
+                statement.setObject(2, update.loginAttempts(), Types.INTEGER);
+                statement.setObject(3, update.lastLogin() == null ? null : Timestamp.valueOf(update.lastLogin()), Types.TIMESTAMP);
+                statement.setLong(4, update.updatedBy());
+                statement.setTimestamp(5, Timestamp.valueOf(update.updatedAt()));
+                statement.setString(6, entry.getKey());
+            });
+        } catch (Exception exception) {
+            log.error("Unable to flush {} login update(s): {}", updates.size(), exception.getMessage());
+            updates.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), (newer, older) -> older.then(newer)));
+        }
+    }
+
+    private record LoginUpdate(Integer loginAttempts, Boolean accountNonLocked, LocalDateTime lastLogin, long updatedBy, LocalDateTime updatedAt) {
+        private LoginUpdate then(LoginUpdate next) {
+            return new LoginUpdate(next.loginAttempts != null ? next.loginAttempts : loginAttempts,
+                    next.accountNonLocked != null ? next.accountNonLocked : accountNonLocked,
+                    next.lastLogin != null ? next.lastLogin : lastLogin,
+                    next.updatedBy, next.updatedAt);
+        }
+    }
+}
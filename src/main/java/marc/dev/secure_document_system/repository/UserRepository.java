@@ -1,15 +1,23 @@
 package marc.dev.secure_document_system.repository;
 
 
+import marc.dev.secure_document_system.dto.api.IUserCredential;
 import marc.dev.secure_document_system.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
+import static marc.dev.secure_document_system.constant.Constants.SELECT_USER_CREDENTIAL_QUERY;
+
 
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
     Optional<UserEntity> findByEmailIgnoreCase(String email);
     Optional<UserEntity> findUserByUserId(String userId);
+    @Query("SELECT COALESCE(u.securityStamp, 0) FROM UserEntity u WHERE u.userId = ?1")
+    Optional<Long> findSecurityStampByUserId(String userId);
+    @Query(SELECT_USER_CREDENTIAL_QUERY)
+    Optional<IUserCredential> findUserCredentialByEmail(String email);
 }
\ No newline at end of file
@@ -1,7 +1,5 @@
 package marc.dev.secure_document_system.securtity;
 
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,7 +10,6 @@ import marc.dev.secure_document_system.domain.TokenData;
 import marc.dev.secure_document_system.dto.User;
 import marc.dev.secure_document_system.dtorequest.LoginRequest;
 import marc.dev.secure_document_system.enumeration.LoginType;
-import marc.dev.secure_document_system.enumeration.TokenType;
 import marc.dev.secure_document_system.service.JwtService;
 import marc.dev.secure_document_system.service.UserService;
 import org.springframework.http.HttpStatus;
@@ -28,7 +25,8 @@ import java.io.IOException;
 import static java.util.Map.of;
 import static marc.dev.secure_document_system.constant.Constants.LOGIN_PATH;
 import static marc.dev.secure_document_system.domain.ApiAuthentication.unauthenticated;
-import static marc.dev.secure_document_system.enumeration.TokenType.ACCESS;
+import static marc.dev.secure_document_system.utils.JsonUtils.LOGIN_REQUEST_READER;
+import static marc.dev.secure_document_system.utils.JsonUtils.RESPONSE_WRITER;
 import static marc.dev.secure_document_system.utils.RequestUtils.getResponse;
 import static marc.dev.secure_document_system.utils.RequestUtils.handleErrorResponse;
 import static org.springframework.http.HttpMethod.POST;
@@ -39,19 +37,21 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 public class ApiAuthenticationFilter extends AbstractAuthenticationProcessingFilter {
     private final UserService userService;
     private final JwtService jwtService;
+    private final LoginRateLimiter loginRateLimiter;
 
-    public ApiAuthenticationFilter(AuthenticationManager authenticationManager, UserService userService, JwtService jwtService) {
+    public ApiAuthenticationFilter(AuthenticationManager authenticationManager, UserService userService, JwtService jwtService, LoginRateLimiter loginRateLimiter) {
         super(new AntPathRequestMatcher(LOGIN_PATH, POST.name()), authenticationManager);
         this.userService = userService;
         this.jwtService = jwtService;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     @Override
     public Authentication attemptAuthentication(HttpServletRequest request, HttpServletResponse response) throws AuthenticationException, IOException, ServletException {
 
       try {
-          var user = new ObjectMapper().configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, true).readValue(request.getInputStream(), LoginRequest.class);
-          System.out.println(user.getEmail());
+          var user = LOGIN_REQUEST_READER.<LoginRequest>readValue(request.getInputStream());
+          loginRateLimiter.checkAccount(user.getEmail());
           userService.updateLoginAttempt(user.getEmail(), LoginType.LOGIN_ATTEMPT);
           var authentication = unauthenticated(user.getEmail(), user.getPassword());
 
@@ -73,14 +73,12 @@ public class ApiAuthenticationFilter extends AbstractAuthenticationProcessingFil
        response.setContentType(APPLICATION_JSON_VALUE);
        response.setStatus(OK.value());
        var out = response.getOutputStream();
-       var mapper = new ObjectMapper();
-       mapper.writeValue(out,httpResponse);
+       RESPONSE_WRITER.writeValue(out,httpResponse);
        out.flush();
     }
 
     private Response sendResponse(HttpServletRequest request, HttpServletResponse response, User user){
-        jwtService.addCookie(response, user, ACCESS);
-        jwtService.addCookie(response, user, TokenType.REFRESH);
+        jwtService.addCookies(response, user);
         return getResponse(request, of("user", user), "Login Success", HttpStatus.OK);
     }
 
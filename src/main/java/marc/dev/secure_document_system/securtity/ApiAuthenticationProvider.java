@@ -2,9 +2,11 @@ package marc.dev.secure_document_system.securtity;
 
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import marc.dev.secure_document_system.cache.LoginAttemptTracker;
 import marc.dev.secure_document_system.domain.ApiAuthentication;
 import marc.dev.secure_document_system.domain.UserPrincipal;
-import marc.dev.secure_document_system.exception.ApiException;
+import marc.dev.secure_document_system.dto.User;
 import marc.dev.secure_document_system.service.UserService;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -13,34 +15,36 @@ import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.LockedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import static marc.dev.secure_document_system.constant.Constants.MAX_LOGIN_ATTEMPTS;
 import static marc.dev.secure_document_system.domain.ApiAuthentication.authenticated;
+import static marc.dev.secure_document_system.utils.UserUtils.fromUserCredential;
 
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class ApiAuthenticationProvider implements AuthenticationProvider {
     private final UserService userService;
-    private final BCryptPasswordEncoder encoder;
+    private final PasswordEncoder encoder;
+    private final LoginAttemptTracker loginAttemptTracker;
 
     @Override
     public Authentication authenticate(Authentication authentication) throws AuthenticationException {
         var apiAuthentication = authenticationFunction.apply(authentication);
-        var user = userService.getUserByEmail(apiAuthentication.getEmail());
-        if(user != null) {
-            var userCredential = userService.getUserCredentialById(user.getId());
-            //if(userCredential.getUpdatedAt().minusDays(NINETY_DAYS).isAfter(now())) { throw new ApiException("Credentials are expired. Please reset your password"); }
-            //if(!user.isCredentialsNonExpired()) { throw new ApiException("Credentials are expired. Please reset your password"); }
-            var userPrincipal = new UserPrincipal(user, userCredential);
-            validAccount.accept(userPrincipal);
-            if(encoder.matches(apiAuthentication.getPassword(), userCredential.getPassword())) {
-                return authenticated(user, userPrincipal.getAuthorities());
-            } else throw new BadCredentialsException("Email and/or password incorrect. Please try again");
-        } throw new ApiException("Unable to authenticate");
+        var userCredential = userService.getUserCredentialByEmail(apiAuthentication.getEmail());
+        var user = fromUserCredential(userCredential);
+        releaseExpiredLockout(user);
+        var userPrincipal = new UserPrincipal(user, userCredential.getPassword());
+        validAccount.accept(userPrincipal);
+        if(encoder.matches(apiAuthentication.getPassword(), userCredential.getPassword())) {
+            upgradeEncoding(userCredential.getCredentialId(), userCredential.getPassword(), apiAuthentication.getPassword());
+            return authenticated(user, userPrincipal.getAuthorities());
+        } else throw new BadCredentialsException("Email and/or password incorrect. Please try again");
     }
 
     @Override
@@ -48,6 +52,24 @@ public class ApiAuthenticationProvider implements AuthenticationProvider {
         return ApiAuthentication.class.isAssignableFrom(authentication);
     }
 
+    /** A lock set by failed attempts lifts once the attempt window has passed, and the release is written back. */
+    private void releaseExpiredLockout(User user) {
+        if(!user.isAccountNonLocked() && user.getLoginAttempts() != null && user.getLoginAttempts() > MAX_LOGIN_ATTEMPTS
+                && !loginAttemptTracker.isLocked(user.getEmail())) {
+            user.setAccountNonLocked(true);
+            userService.releaseLockout(user.getEmail());
+        }
+    }
+
+    private void upgradeEncoding(Long credentialId, String encodedPassword, String rawPassword) {
+        if(!encoder.upgradeEncoding(encodedPassword)) { return; }
+        try {
+            userService.upgradePasswordEncoding(credentialId, rawPassword);
+        } catch (Exception exception) {
+            log.warn("Unable to rehash password for credential {}: {}", credentialId, exception.getMessage());
+        }
+    }
+
     private final Function<Authentication, ApiAuthentication> authenticationFunction = authentication -> (ApiAuthentication) authentication;
 
     private final Consumer<UserPrincipal> validAccount = userPrincipal -> {
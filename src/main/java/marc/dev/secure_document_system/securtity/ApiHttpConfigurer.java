@@ -13,6 +13,8 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class ApiHttpConfigurer extends AbstractHttpConfigurer<ApiHttpConfigurer, HttpSecurity> {
     private final AuthorizationFilter authorizationFilter;
+    private final LoginRateLimitFilter loginRateLimitFilter;
+    private final LoginRateLimiter loginRateLimiter;
     private final ApiAuthenticationProvider apiAuthenticationProvider;
     private final UserService userService;
     private final JwtService jwtService;
@@ -26,7 +28,8 @@ public class ApiHttpConfigurer extends AbstractHttpConfigurer<ApiHttpConfigurer,
 
     @Override
     public void configure(HttpSecurity http) throws Exception {
+        http.addFilterBefore(loginRateLimitFilter, UsernamePasswordAuthenticationFilter.class);
         http.addFilterBefore(authorizationFilter, UsernamePasswordAuthenticationFilter.class);
-        http.addFilterAfter(new ApiAuthenticationFilter(authenticationConfiguration.getAuthenticationManager(), userService, jwtService), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(new ApiAuthenticationFilter(authenticationConfiguration.getAuthenticationManager(), userService, jwtService, loginRateLimiter), UsernamePasswordAuthenticationFilter.class);
     }
 }
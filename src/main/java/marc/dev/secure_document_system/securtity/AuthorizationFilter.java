@@ -7,7 +7,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import marc.dev.secure_document_system.domain.RequestContext;
-import marc.dev.secure_document_system.domain.Token;
 import marc.dev.secure_document_system.domain.TokenData;
 import marc.dev.secure_document_system.service.JwtService;
 import org.springframework.security.core.Authentication;
@@ -18,32 +17,31 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
-import static java.util.Arrays.asList;
-import static marc.dev.secure_document_system.constant.Constants.PUBLIC_ROUTES;
 import static marc.dev.secure_document_system.domain.ApiAuthentication.authenticated;
 import static marc.dev.secure_document_system.enumeration.TokenType.ACCESS;
 import static marc.dev.secure_document_system.enumeration.TokenType.REFRESH;
 import static marc.dev.secure_document_system.utils.RequestUtils.handleErrorResponse;
-import static org.springframework.http.HttpMethod.OPTIONS;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class AuthorizationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
+    private final PublicRouteMatcher publicRouteMatcher;
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         try {
-            var accessToken = jwtService.extractToken(request, ACCESS.getValue());
-            if(accessToken.isPresent() && jwtService.getTokenData(accessToken.get(), TokenData::isValid)){
+            var accessToken = jwtService.extractToken(request, ACCESS.getValue()).map(jwtService::getTokenData);
+            if(accessToken.isPresent() && accessToken.get().isValid()){
                 SecurityContextHolder.getContext().setAuthentication(getAuthentication(accessToken.get(), request));
-                RequestContext.setUserId(jwtService.getTokenData(accessToken.get(), TokenData::getUser).getId());
+                RequestContext.setUserId(accessToken.get().getUser().getId());
             }else {
-                var refreshToken = jwtService.extractToken(request, REFRESH.getValue());
-                if(refreshToken.isPresent() && jwtService.getTokenData(refreshToken.get(), TokenData::isValid)){
-                    var user = jwtService.getTokenData(refreshToken.get(), TokenData::getUser);
-                    SecurityContextHolder.getContext().setAuthentication(getAuthentication(jwtService.createToken(user, Token::getAccess),request));
-                    jwtService.addCookie(response, user, ACCESS);
+                var refreshToken = jwtService.extractToken(request, REFRESH.getValue()).map(jwtService::getTokenData);
+                if(refreshToken.isPresent() && refreshToken.get().isValid()){
+                    var user = refreshToken.get().getUser();
+                    var newAccessToken = jwtService.createToken(user, ACCESS);
+                    SecurityContextHolder.getContext().setAuthentication(getAuthentication(refreshToken.get(), request));
+                    jwtService.addCookie(response, newAccessToken, ACCESS);
                     RequestContext.setUserId(user.getId());
 //                    log.info(String.valueOf(user.getId()));
                 }else {
@@ -60,14 +58,13 @@ public class AuthorizationFilter extends OncePerRequestFilter {
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
-        //var shouldNotFilter = request.getMethod().equalsIgnoreCase(OPTIONS.name()) || asList(PUBLIC_ROUTES).contains(request.getRequestURI());
-        var shouldNotFilter = request.getMethod().equalsIgnoreCase(OPTIONS.name()) || asList(PUBLIC_ROUTES).contains(request.getRequestURI());
+        var shouldNotFilter = publicRouteMatcher.matches(request);
         if(shouldNotFilter) { RequestContext.setUserId(0L); }
         return shouldNotFilter;
     }
 
-    private Authentication getAuthentication(String token, HttpServletRequest request) {
-        var authentication = authenticated(jwtService.getTokenData(token, TokenData::getUser), jwtService.getTokenData(token, TokenData::getAuthorities));
+    private Authentication getAuthentication(TokenData tokenData, HttpServletRequest request) {
+        var authentication = authenticated(tokenData.getUser(), tokenData.getAuthorities());
         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         return authentication;
     }
@@ -0,0 +1,83 @@
+package marc.dev.secure_document_system.securtity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import marc.dev.secure_document_system.exception.ApiException;
+import marc.dev.secure_document_system.exception.ServiceBusyException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Runs password hashing and verification on a fixed, core-sized pool instead of on the
+ * request thread. The pool queue is bounded; once it is full new work is rejected at once
+ * with {@link ServiceBusyException} (503) so a login burst cannot starve other endpoints.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer queueWait;
+    private final Timer hashTime;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hash-"), new ThreadPoolExecutor.AbortPolicy());
+        this.queueWait = Timer.builder("password.hash.queue.wait").description("Time a hash waits for a worker").register(registry);
+        this.hashTime = Timer.builder("password.hash.time").description("Time spent hashing or verifying a password").register(registry);
+        this.rejected = Counter.builder("password.hash.rejected").description("Hashes rejected because the queue was full").register(registry);
+        Gauge.builder("password.hash.queue.size", executor, pool -> pool.getQueue().size()).register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Supplier<T> task) {
+        var queuedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, NANOSECONDS);
+                return hashTime.record(task);
+            }).get();
+        } catch (RejectedExecutionException exception) {
+            rejected.increment();
+            log.warn("Password hashing queue is full, rejecting request");
+            throw new ServiceBusyException("The server is busy. Please try again later");
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Password hashing was interrupted");
+        } catch (ExecutionException exception) {
+            if(exception.getCause() instanceof RuntimeException runtimeException) { throw runtimeException; }
+            throw new ApiException(exception.getCause().getMessage());
+        }
+    }
+}
@@ -44,6 +44,7 @@ public class FilterChainConfiguration {
     private final ApiAccessDeniedHandler apiAccessDeniedHandler;
     private final ApiAuthenticationEntryPoint apiAuthenticationEntryPoint;
     private final ApiHttpConfigurer apiHttpConfigurer;
+    private final PublicRouteMatcher publicRouteMatcher;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -55,8 +56,7 @@ public class FilterChainConfiguration {
                         exception.accessDeniedHandler(apiAccessDeniedHandler)
                                 .authenticationEntryPoint(apiAuthenticationEntryPoint))
                 .authorizeHttpRequests(request ->
-                        request.requestMatchers(PUBLIC_URLS).permitAll()
-                                .requestMatchers(OPTIONS).permitAll()
+                        request.requestMatchers(publicRouteMatcher).permitAll()
                                 .requestMatchers(DELETE, "/user/delete/**")
                                 .hasAnyAuthority("user:delete")
                                 .requestMatchers(DELETE, "/document/delete/**")
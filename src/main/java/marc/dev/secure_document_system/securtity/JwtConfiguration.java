@@ -11,4 +11,6 @@ public class JwtConfiguration {
     private Long expiration;
     @Value("${jwt.secret}")
     private String secret;
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package marc.dev.secure_document_system.securtity;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+
+/**
+ * Holds the HMAC signing key and the parser built from it so they are created once
+ * and shared across requests. Both are immutable and thread-safe; {@link #reload(String)}
+ * swaps them atomically when the secret changes.
+ */
+public class JwtKeyHolder {
+    private volatile SigningKey signingKey;
+
+    public void reload(String secret) {
+        var key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        signingKey = new SigningKey(key, Jwts.parser().verifyWith(key).build());
+    }
+
+    public SecretKey getKey() {
+        return current().key();
+    }
+
+    public JwtParser getParser() {
+        return current().parser();
+    }
+
+    private SigningKey current() {
+        var current = signingKey;
+        if(current == null) { throw new IllegalStateException("JWT signing key has not been loaded"); }
+        return current;
+    }
+
+    private record SigningKey(SecretKey key, JwtParser parser) {}
+}
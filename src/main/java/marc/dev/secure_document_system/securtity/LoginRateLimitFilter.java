@@ -0,0 +1,44 @@
+package marc.dev.secure_document_system.securtity;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import marc.dev.secure_document_system.exception.TooManyRequestsException;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+import static marc.dev.secure_document_system.constant.Constants.LOGIN_PATH;
+import static marc.dev.secure_document_system.utils.RequestUtils.handleErrorResponse;
+import static org.springframework.http.HttpMethod.POST;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+    private static final RequestMatcher LOGIN_MATCHER = new AntPathRequestMatcher(LOGIN_PATH, POST.name());
+    private final LoginRateLimiter loginRateLimiter;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        try {
+            loginRateLimiter.checkClient(request.getRemoteAddr());
+        } catch (TooManyRequestsException exception) {
+            log.warn("Login rate limit exceeded for {}", request.getRemoteAddr());
+            handleErrorResponse(request, response, exception);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
+        return !LOGIN_MATCHER.matches(request);
+    }
+}
@@ -0,0 +1,42 @@
+package marc.dev.secure_document_system.securtity;
+
+import marc.dev.secure_document_system.cache.LoginAttemptTracker;
+import marc.dev.secure_document_system.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits {@code POST /user/login} per client address and per account. The client
+ * check runs before the request body is read; the account check runs as soon as the email
+ * is known, ahead of any SQL or password hashing.
+ */
+@Component
+public class LoginRateLimiter {
+    private final TokenBucket clientBuckets;
+    private final TokenBucket accountBuckets;
+
+    public LoginRateLimiter(@Value("${login.rate-limit.client.capacity:20}") int clientCapacity,
+                            @Value("${login.rate-limit.client.period:60}") int clientPeriod,
+                            @Value("${login.rate-limit.account.capacity:10}") int accountCapacity,
+                            @Value("${login.rate-limit.account.period:60}") int accountPeriod,
+                            @Value("${login.rate-limit.maximum-size:100000}") long maximumSize) {
+        this.clientBuckets = new TokenBucket(clientCapacity, clientPeriod, TimeUnit.SECONDS, maximumSize);
+        this.accountBuckets = new TokenBucket(accountCapacity, accountPeriod, TimeUnit.SECONDS, maximumSize);
+    }
+
+    public void checkClient(String address) {
+        verify(clientBuckets.tryAcquire(address));
+    }
+
+    public void checkAccount(String email) {
+        verify(accountBuckets.tryAcquire(LoginAttemptTracker.normalize(email)));
+    }
+
+    private static void verify(long waitNanos) {
+        if(waitNanos > 0) {
+            throw new TooManyRequestsException("Too many login requests. Please try again later", TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package marc.dev.secure_document_system.securtity;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static marc.dev.secure_document_system.constant.Constants.STRENGTH;
+
+/**
+ * Builds the password encoder stack. Hashes are stored as {@code {id}hash}, and both BCrypt
+ * and Argon2 keep their cost inside the hash, so the algorithm and cost can change without
+ * invalidating stored passwords. Legacy hashes without an id are read as BCrypt.
+ */
+@Slf4j
+public class PasswordEncoders {
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+    private static final int MIN_ARGON2_ITERATIONS = 2;
+    private static final int MAX_ARGON2_ITERATIONS = 10;
+    private static final int ARGON2_MEMORY = 1 << 14;
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private PasswordEncoders() {}
+
+    public static PasswordEncoder delegating(String algorithm, int cost) {
+        var bcrypt = encoder(BCRYPT, BCRYPT.equals(algorithm) ? cost : STRENGTH);
+        var argon2 = encoder(ARGON2, ARGON2.equals(algorithm) ? cost : MIN_ARGON2_ITERATIONS);
+        var delegating = new DelegatingPasswordEncoder(algorithm, Map.of(BCRYPT, bcrypt, ARGON2, argon2));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+
+    public static PasswordEncoder encoder(String algorithm, int cost) {
+        return switch (algorithm) {
+            case BCRYPT -> new BCryptPasswordEncoder(cost);
+            case ARGON2 -> new Argon2PasswordEncoder(16, 32, 1, ARGON2_MEMORY, cost);
+            default -> throw new IllegalArgumentException("Unsupported password algorithm: " + algorithm);
+        };
+    }
+
+    /** Picks the highest cost whose hash time on this machine stays within the budget. */
+    public static int calibrate(String algorithm, Duration budget) {
+        var cost = switch (algorithm) {
+            case BCRYPT -> calibrateBcrypt(budget);
+            case ARGON2 -> calibrateArgon2(budget);
+            default -> throw new IllegalArgumentException("Unsupported password algorithm: " + algorithm);
+        };
+        log.info("Calibrated {} cost to {} for a {} ms hashing budget", algorithm, cost, budget.toMillis());
+        return cost;
+    }
+
+    private static int calibrateBcrypt(Duration budget) {
+        var strength = MIN_BCRYPT_STRENGTH;
+        while(strength < MAX_BCRYPT_STRENGTH && measure(encoder(BCRYPT, strength + 1)).compareTo(budget) <= 0) {
+            strength++;
+        }
+        return strength;
+    }
+
+    private static int calibrateArgon2(Duration budget) {
+        var perIteration = measure(encoder(ARGON2, MIN_ARGON2_ITERATIONS)).toNanos() / MIN_ARGON2_ITERATIONS;
+        var iterations = perIteration == 0 ? MAX_ARGON2_ITERATIONS : (int) (budget.toNanos() / perIteration);
+        return Math.max(MIN_ARGON2_ITERATIONS, Math.min(MAX_ARGON2_ITERATIONS, iterations));
+    }
+
+    private static Duration measure(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+        var fastest = Long.MAX_VALUE;
+        for(var run = 0; run < 3; run++) {
+            var start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        return Duration.ofNanos(fastest);
+    }
+}
@@ -0,0 +1,74 @@
+package marc.dev.secure_document_system.securtity;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static marc.dev.secure_document_system.constant.Constants.PUBLIC_ROUTES;
+import static org.springframework.http.HttpMethod.OPTIONS;
+
+/**
+ * Classifies a request as public or protected for both the authorization filter and the
+ * filter chain. {@link marc.dev.secure_document_system.constant.Constants#PUBLIC_ROUTES}
+ * is compiled at startup into a trie of path segments; a route matches itself and
+ * everything below it, and a {@code *} segment matches any single segment. A lookup
+ * walks the URI once with one hash probe per segment.
+ */
+@Component
+public class PublicRouteMatcher implements RequestMatcher {
+    private static final String WILDCARD = "*";
+    private final Node root = new Node();
+
+    public PublicRouteMatcher() {
+        for(var route : PUBLIC_ROUTES) { add(route); }
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        return OPTIONS.matches(request.getMethod()) || isPublic(request.getRequestURI());
+    }
+
+    public boolean isPublic(String uri) {
+        var node = root;
+        var start = 0;
+        var length = uri.length();
+        while(start < length) {
+            if(uri.charAt(start) == '/') { start++; continue; }
+            var end = uri.indexOf('/', start);
+            if(end < 0) { end = length; }
+            node = node.child(uri.substring(start, end));
+            if(node == null) { return false; }
+            if(node.terminal) { return true; }
+            start = end;
+        }
+        return node.terminal;
+    }
+
+    private void add(String route) {
+        var node = root;
+        for(var segment : route.split("/")) {
+            if(segment.isEmpty()) { continue; }
+            if(WILDCARD.equals(segment)) {
+                if(node.wildcard == null) { node.wildcard = new Node(); }
+                node = node.wildcard;
+            } else {
+                node = node.children.computeIfAbsent(segment, key -> new Node());
+            }
+        }
+        node.terminal = true;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private Node wildcard;
+        private boolean terminal;
+
+        private Node child(String segment) {
+            var child = children.get(segment);
+            return child != null ? child : wildcard;
+        }
+    }
+}
@@ -1,15 +1,27 @@
 package marc.dev.secure_document_system.securtity;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
 
 import static marc.dev.secure_document_system.constant.Constants.STRENGTH;
 
 @Configuration
 public class SecurityConfig {
     @Bean
-    public BCryptPasswordEncoder passwordEncoder(){
-        return  new BCryptPasswordEncoder(STRENGTH);
+    public PasswordEncoder passwordEncoder(MeterRegistry registry,
+                                           @Value("${security.password.algorithm:bcrypt}") String algorithm,
+                                           @Value("${security.password.strength:" + STRENGTH + "}") int strength,
+                                           @Value("${security.password.calibrate:false}") boolean calibrate,
+                                           @Value("${security.password.latency-budget:250}") long latencyBudget,
+                                           @Value("${security.password.threads:0}") int threads,
+                                           @Value("${security.password.queue-capacity:64}") int queueCapacity){
+        var cost = calibrate ? PasswordEncoders.calibrate(algorithm, Duration.ofMillis(latencyBudget)) : strength;
+        var poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(PasswordEncoders.delegating(algorithm, cost), poolSize, queueCapacity, registry);
     }
 }
@@ -0,0 +1,47 @@
+package marc.dev.secure_document_system.securtity;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keyed token buckets implemented as a generic cell rate algorithm: each key keeps a single
+ * theoretical arrival time in an {@link AtomicLong} and a request either advances it with a
+ * CAS or is rejected. A bucket idle for a full period is full again, so entries expire
+ * after that long and the number of keys is capped to keep memory bounded.
+ */
+public class TokenBucket {
+    private final Cache<String, AtomicLong> buckets;
+    private final long interval;
+    private final long tolerance;
+
+    public TokenBucket(int capacity, int period, TimeUnit timeUnit, long maximumSize) {
+        this.interval = timeUnit.toNanos(period) / capacity;
+        this.tolerance = interval * capacity;
+        this.buckets = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(period, timeUnit)
+                .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                .build();
+    }
+
+    /** Takes a token for the key and returns 0, or the nanoseconds until one is available. */
+    public long tryAcquire(String key) {
+        var now = System.nanoTime();
+        try {
+            var arrival = buckets.get(key, () -> new AtomicLong(now));
+            while(true) {
+                var current = arrival.get();
+                var next = (current - now > 0 ? current : now) + interval;
+                var excess = next - now - tolerance;
+                if(excess > 0) { return excess; }
+                if(arrival.compareAndSet(current, next)) { return 0; }
+            }
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+}
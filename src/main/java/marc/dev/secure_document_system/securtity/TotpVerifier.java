@@ -0,0 +1,60 @@
+package marc.dev.secure_document_system.securtity;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import dev.samstevens.totp.code.CodeGenerator;
+import dev.samstevens.totp.code.DefaultCodeGenerator;
+import dev.samstevens.totp.exceptions.CodeGenerationException;
+import dev.samstevens.totp.time.SystemTimeProvider;
+import dev.samstevens.totp.time.TimeProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Verifies TOTP codes with one shared generator and remembers every (user, time step) that
+ * has been accepted until that step can no longer be valid, so a code cannot be replayed
+ * inside its window. A replay is rejected with a single cache lookup.
+ */
+@Slf4j
+@Component
+public class TotpVerifier {
+    private static final int PERIOD = 30;
+    private static final int ALLOWED_DISCREPANCY = 1;
+    private final CodeGenerator codeGenerator = new DefaultCodeGenerator();
+    private final TimeProvider timeProvider = new SystemTimeProvider();
+    private final Cache<String, Boolean> usedCodes;
+
+    public TotpVerifier(@Value("${mfa.totp.replay-cache.maximum-size:100000}") long maximumSize) {
+        this.usedCodes = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite((2L * ALLOWED_DISCREPANCY + 1) * PERIOD, TimeUnit.SECONDS)
+                .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                .build();
+    }
+
+    public boolean verify(String userId, String secret, String code) {
+        if(secret == null || secret.isEmpty() || code == null) { return false; }
+        var currentStep = Math.floorDiv(timeProvider.getTime(), PERIOD);
+        for(var step = currentStep - ALLOWED_DISCREPANCY; step <= currentStep + ALLOWED_DISCREPANCY; step++) {
+            if(matches(secret, step, code)) {
+                return usedCodes.asMap().putIfAbsent(userId + ":" + step, Boolean.TRUE) == null;
+            }
+        }
+        return false;
+    }
+
+    private boolean matches(String secret, long step, String code) {
+        try {
+            return MessageDigest.isEqual(codeGenerator.generate(secret, step).getBytes(UTF_8), code.getBytes(UTF_8));
+        } catch (CodeGenerationException exception) {
+            log.error("Unable to generate TOTP code: {}", exception.getMessage());
+            return false;
+        }
+    }
+}
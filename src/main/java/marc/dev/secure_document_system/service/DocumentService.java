@@ -1,5 +1,6 @@
 package marc.dev.secure_document_system.service;
 
+import jakarta.servlet.http.HttpServletRequest;
 import marc.dev.secure_document_system.dto.api.IDocument;
 import marc.dev.secure_document_system.dto.Document;
 import org.springframework.core.io.Resource;
@@ -14,6 +15,7 @@ public interface DocumentService {
     Page<IDocument> getDocuments(int page, int size);
     Page<IDocument> getDocuments(int page, int size, String name);
     Collection<Document> saveDocuments(String userId, List<MultipartFile> documents);
+    Collection<Document> saveDocuments(String userId, HttpServletRequest request);
     IDocument updateDocument(String documentId, String name, String description);
     void deleteDocument(String documentId);
     IDocument getDocumentByDocumentId(String documentId);
@@ -0,0 +1,10 @@
+package marc.dev.secure_document_system.service;
+
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface ImageService {
+    String saveProfileImage(String userId, MultipartFile file);
+    Resource getProfileImage(String filename);
+    boolean isVariant(Resource image);
+}
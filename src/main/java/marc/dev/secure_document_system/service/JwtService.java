@@ -11,9 +11,14 @@ import java.util.Optional;
 import java.util.function.Function;
 
 public interface JwtService {
-    String createToken(User user, Function<Token, String> tokenFunction);
+    String createToken(User user, TokenType type);
+    Token createTokens(User user);
     Optional<String> extractToken(HttpServletRequest request, String tokenType);
     void addCookie(HttpServletResponse response, User user, TokenType type);
+    void addCookie(HttpServletResponse response, String token, TokenType type);
+    void addCookies(HttpServletResponse response, User user);
+    TokenData getTokenData(String token);
     <T> T getTokenData(String token, Function<TokenData, T> tokenFunction);
     void removeCookie(HttpServletRequest request, HttpServletResponse response, String cookieName);
+    void revokeToken(String token);
 }
@@ -0,0 +1,8 @@
+package marc.dev.secure_document_system.service;
+
+import java.util.Date;
+
+public interface TokenRevocationService {
+    void revoke(String tokenId, Date expiration);
+    boolean isRevoked(String tokenId);
+}
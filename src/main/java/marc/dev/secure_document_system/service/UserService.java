@@ -1,21 +1,30 @@
 package marc.dev.secure_document_system.service;
 
 import marc.dev.secure_document_system.dto.User;
+import marc.dev.secure_document_system.dto.api.IUserCredential;
 import marc.dev.secure_document_system.entity.CredentialEntity;
 import marc.dev.secure_document_system.entity.RoleEntity;
 import marc.dev.secure_document_system.enumeration.LoginType;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface UserService {
     void createUser(String firstName, String lastName, String email, String password);
     RoleEntity getRoleName(String name);
+    void refreshRoles();
     void verifyAccount(String token);
     void updateLoginAttempt(String email, LoginType loginType);
+    void releaseLockout(String email);
     User getUserByUserId(String userId);
     User getUserByEmail(String email);
     CredentialEntity getUserCredentialById(Long id);
+    IUserCredential getUserCredentialByEmail(String email);
+    void upgradePasswordEncoding(Long credentialId, String password);
 
     User setUpMfa(Long id);
+    byte[] getQrCodeImage(Long id);
     User cancelMfa(Long id);
 
     User verifyQrCode(String userId, String qrCode);
@@ -42,4 +51,5 @@ public interface UserService {
     String uploadPhoto(String userId, MultipartFile file);
 
     User getUserById(Long id);
+    Map<Long, User> getUsersById(Collection<Long> ids);
 }
@@ -1,33 +1,51 @@
 package marc.dev.secure_document_system.service.impl;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import marc.dev.secure_document_system.dto.api.IDocument;
 import marc.dev.secure_document_system.dto.Document;
+import marc.dev.secure_document_system.dto.User;
 import marc.dev.secure_document_system.entity.DocumentEntity;
 import marc.dev.secure_document_system.exception.ApiException;
 import marc.dev.secure_document_system.repository.DocumentRepository;
 import marc.dev.secure_document_system.repository.UserRepository;
 import marc.dev.secure_document_system.service.DocumentService;
 import marc.dev.secure_document_system.service.UserService;
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
 import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static marc.dev.secure_document_system.constant.Constants.FILE_STORAGE;
 import static marc.dev.secure_document_system.utils.DocumentUtils.*;
 import static org.apache.commons.io.FileUtils.byteCountToDisplaySize;
 import static org.apache.commons.io.FilenameUtils.getExtension;
+import static org.apache.commons.io.FilenameUtils.getName;
 import static org.springframework.util.StringUtils.cleanPath;
 
 @Service
@@ -38,6 +56,12 @@ public class DocumentServiceImpl implements DocumentService {
     private final DocumentRepository documentRepository;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${spring.servlet.multipart.max-file-size:1000MB}")
+    private DataSize maxFileSize;
+    @Value("${spring.servlet.multipart.max-request-size:1000MB}")
+    private DataSize maxRequestSize;
 
 
     @Override
@@ -54,7 +78,7 @@ public class DocumentServiceImpl implements DocumentService {
     @Override
     public Collection<Document> saveDocuments(String userId, List<MultipartFile> documents) {
 
-        List<Document> newDocuments = new ArrayList<>();
+        List<DocumentEntity> savedDocuments = new ArrayList<>();
         var userEntity = userRepository.findUserByUserId(userId).get();
 
 
@@ -78,13 +102,11 @@ public class DocumentServiceImpl implements DocumentService {
                         .build();
 
                 var savedDocument = documentRepository.save(documentEntity);
-                log.info(String.valueOf(savedDocument.getCreatedBy()));
                 Files.copy(document.getInputStream(), storage.resolve(filename), REPLACE_EXISTING);
-                Document newDocument = fromDocumentEntity(savedDocument, userService.getUserById(savedDocument.getCreatedBy()), userService.getUserById(savedDocument.getUpdatedBy()));
-                newDocuments.add(newDocument);
+                savedDocuments.add(savedDocument);
 
             }
-            return newDocuments;
+            return toDocuments(savedDocuments);
 
         }catch(Exception exception){
             throw new ApiException(exception.getMessage());
@@ -93,6 +115,151 @@ public class DocumentServiceImpl implements DocumentService {
 
     }
 
+    /**
+     * Reads the multipart body as it arrives instead of letting the servlet container buffer
+     * it. Each file part is written once, to a staging file on the storage volume, while its
+     * size and SHA-256 are computed from the same stream. Nothing is visible until every part
+     * has been read; the rows are then saved and the staging files renamed into place in one
+     * transaction. A failed rename rolls the rows back and undoes the renames already made.
+     */
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public Collection<Document> saveDocuments(String userId, HttpServletRequest request) {
+        if(!JakartaServletFileUpload.isMultipartContent(request)) { throw new ApiException("Request is not a multipart upload"); }
+        var storage = Paths.get(FILE_STORAGE).toAbsolutePath().normalize();
+        var stagedDocuments = new ArrayList<StagedDocument>();
+        try {
+            var upload = new JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory>();
+            upload.setFileSizeMax(maxFileSize.toBytes());
+            upload.setSizeMax(maxRequestSize.toBytes());
+            var parts = upload.getItemIterator(request);
+            while(parts.hasNext()) {
+                var part = parts.next();
+                if(part.isFormField() || part.getName() == null || part.getName().isBlank()) { continue; }
+                stagedDocuments.add(stage(storage, part));
+            }
+            if(stagedDocuments.isEmpty()) { throw new ApiException("No documents to upload"); }
+            return transactionTemplate.execute(status -> commit(userId, storage, stagedDocuments));
+        } catch (ApiException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new ApiException(exception.getMessage());
+        } finally {
+            stagedDocuments.forEach(document -> deleteStaged(document.path()));
+        }
+    }
+
+    private static StagedDocument stage(Path storage, FileItemInput part) throws IOException, NoSuchAlgorithmException {
+        var filename = cleanPath(getName(part.getName()));
+        if(filename.isBlank() || filename.contains("..")) {
+            throw new ApiException(String.format("Invalid file Name: %s", filename));
+        }
+        var digest = MessageDigest.getInstance("SHA-256");
+        var path = Files.createTempFile(storage, ".upload-", ".part");
+        try(var input = new DigestInputStream(part.getInputStream(), digest)) {
+            var size = Files.copy(input, path, REPLACE_EXISTING);
+            return new StagedDocument(filename, path, size, HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException | RuntimeException exception) {
+            deleteStaged(path);
+            throw exception;
+        }
+    }
+
+    private List<Document> commit(String userId, Path storage, List<StagedDocument> stagedDocuments) {
+        var userEntity = userRepository.findUserByUserId(userId).orElseThrow(() -> new ApiException("User not found"));
+        var savedDocuments = documentRepository.saveAllAndFlush(stagedDocuments.stream()
+                .map(document -> DocumentEntity.builder()
+                        .documentId(UUID.randomUUID().toString())
+                        .name(document.name())
+                        .owner(userEntity)
+                        .extension(getExtension(document.name()))
+                        .uri(getDocumentUri(document.name()))
+                        .size(document.size())
+                        .formattedSize(byteCountToDisplaySize(document.size()))
+                        .checksum(document.checksum())
+                        .icon(setIcon(getExtension(document.name())))
+                        .build())
+                .toList());
+        placeAll(storage, stagedDocuments);
+        return toDocuments(savedDocuments);
+    }
+
+    /**
+     * Renames every staged file into place. A stored file with the same name is moved aside
+     * first; if the transaction does not commit, the new files are removed and the files
+     * they replaced are put back.
+     */
+    private static void placeAll(Path storage, List<StagedDocument> stagedDocuments) {
+        var placements = new ArrayList<Placement>();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if(status == STATUS_COMMITTED) {
+                    placements.forEach(Placement::discard);
+                } else {
+                    for(var index = placements.size() - 1; index >= 0; index--) { placements.get(index).undo(); }
+                }
+            }
+        });
+        for(var document : stagedDocuments) {
+            var target = storage.resolve(document.name());
+            try {
+                Path replaced = null;
+                if(Files.exists(target)) {
+                    replaced = Files.createTempFile(storage, ".replaced-", ".part");
+                    Files.move(target, replaced, ATOMIC_MOVE);
+                }
+                placements.add(new Placement(target, replaced));
+                Files.move(document.path(), target, ATOMIC_MOVE);
+            } catch (IOException exception) {
+                throw new ApiException(String.format("Unable to store %s", document.name()));
+            }
+        }
+    }
+
+    private static void deleteStaged(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException exception) {
+            log.warn("Unable to delete staging file {}: {}", path, exception.getMessage());
+        }
+    }
+
+    private record StagedDocument(String name, Path path, long size, String checksum) {}
+
+    private record Placement(Path target, Path replaced) {
+        private void undo() {
+            try {
+                Files.deleteIfExists(target);
+                if(replaced != null) { Files.move(replaced, target, ATOMIC_MOVE); }
+            } catch (IOException exception) {
+                log.error("Unable to restore {} after a failed upload: {}", target, exception.getMessage());
+            }
+        }
+
+        private void discard() {
+            if(replaced != null) { deleteStaged(replaced); }
+        }
+    }
+
+    private List<Document> toDocuments(List<DocumentEntity> documentEntities) {
+        var userIds = new HashSet<Long>();
+        documentEntities.forEach(documentEntity -> {
+            userIds.add(documentEntity.getCreatedBy());
+            userIds.add(documentEntity.getUpdatedBy());
+        });
+        var users = userIds.isEmpty() ? Map.<Long, User>of() : userService.getUsersById(userIds);
+        return documentEntities.stream()
+                .map(documentEntity -> fromDocumentEntity(documentEntity, getUser(users, documentEntity.getCreatedBy()), getUser(users, documentEntity.getUpdatedBy())))
+                .toList();
+    }
+
+    private static User getUser(Map<Long, User> users, Long id) {
+        var user = users.get(id);
+        if(user == null) { throw new ApiException("User not found"); }
+        return user;
+    }
+
 
 
     @Override
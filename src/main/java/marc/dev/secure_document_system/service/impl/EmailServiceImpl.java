@@ -2,75 +2,51 @@ package marc.dev.secure_document_system.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import marc.dev.secure_document_system.exception.ApiException;
+import marc.dev.secure_document_system.entity.EmailOutboxEntity;
+import marc.dev.secure_document_system.repository.EmailOutboxRepository;
 import marc.dev.secure_document_system.service.EmailService;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import static java.time.LocalDateTime.now;
+import static marc.dev.secure_document_system.enumeration.OutboxStatus.PENDING;
 import static marc.dev.secure_document_system.utils.EmailUtils.getEmailMessage;
 import static marc.dev.secure_document_system.utils.EmailUtils.getResetPasswordMessage;
 
+/**
+ * Emails are written to {@code email_outbox} in the caller's transaction, so a rolled-back
+ * registration or reset never sends mail. {@link marc.dev.secure_document_system.job.EmailOutboxDispatcher}
+ * delivers them.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailServiceImpl implements EmailService {
     private static final String NEW_USER_ACCOUNT_VERIFICATION = "New User Account Verification";
     private static final String PASSWORD_RESET_REQUEST = "Reset Password Request";
-    private final JavaMailSender sender;
+    private final EmailOutboxRepository emailOutboxRepository;
 
     @Value("${spring.mail.verify.host}")
     private String host;
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+
     @Override
-    @Async
     public void sendNewAccountEmail(String name, String email, String token) {
-        try {
-            var message = new SimpleMailMessage();
-            message.setSubject(NEW_USER_ACCOUNT_VERIFICATION);
-            message.setFrom(fromEmail);
-            message.setTo(email);
-            message.setText(getEmailMessage(name,host,token));
-            sender.send(message);
-
-        }catch(Exception exception){
-            log.error(exception.getMessage());
-            throw new ApiException("Unable to send email");
-        }
+        enqueue(email, NEW_USER_ACCOUNT_VERIFICATION, getEmailMessage(name, host, token));
     }
 
     @Override
-    @Async
     public void sendPasswordResetEmail(String name, String email, String token) {
-        try {
-            var message = new SimpleMailMessage();
-            message.setSubject(PASSWORD_RESET_REQUEST);
-            message.setFrom(fromEmail);
-            message.setTo(email);
-            message.setText(getResetPasswordMessage(name, host, token));
-            sender.send(message);
-        }catch(Exception exception){
-            log.error(exception.getMessage());
-            throw new ApiException("Unable to send email");
-        }
-
+        enqueue(email, PASSWORD_RESET_REQUEST, getResetPasswordMessage(name, host, token));
     }
 
-
-
-
-
-
-
-
-
-
-
-
-
-
-
+    private void enqueue(String recipient, String subject, String body) {
+        emailOutboxRepository.save(EmailOutboxEntity.builder()
+                .recipient(recipient)
+                .subject(subject)
+                .body(body)
+                .status(PENDING)
+                .attempts(0)
+                .nextAttemptAt(now())
+                .build());
+    }
 }
@@ -0,0 +1,158 @@
+package marc.dev.secure_document_system.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import marc.dev.secure_document_system.exception.ApiException;
+import marc.dev.secure_document_system.service.ImageService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static marc.dev.secure_document_system.constant.Constants.FILE_STORAGE;
+
+/**
+ * Profile photos are stored as uploaded and, once per upload, scaled down on the image
+ * pool into fixed-size PNG variants named {@code <userId>-<size>.png}. The profile links
+ * to the default variant; until it has been written, requests for it get the original.
+ * Only names of that shape are served, so the public image route cannot reach any other
+ * file in storage. Uploads are checked against {@link #MAX_PIXELS} from the image header
+ * before anything is decoded, so a small file declaring huge dimensions is rejected
+ * instead of being inflated on the image pool.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageServiceImpl implements ImageService {
+    private static final long MAX_PIXELS = 16_000_000L;
+    private static final Pattern IMAGE_NAME = Pattern.compile("([0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12})(?:-(\\d+))?\\.png");
+    private final ThreadPoolTaskExecutor imageTaskExecutor;
+
+    @Value("${image.variant-sizes:64,256}")
+    private List<Integer> variantSizes;
+    @Value("${image.default-size:256}")
+    private int defaultSize;
+
+    @Override
+    public String saveProfileImage(String userId, MultipartFile file) {
+        try {
+            checkPixels(file.getInputStream());
+            var storage = storage();
+            if(!Files.exists(storage)){Files.createDirectories(storage);}
+            var original = storage.resolve(userId + ".png");
+            Files.copy(file.getInputStream(), original, REPLACE_EXISTING);
+            for(var size : variantSizes) { Files.deleteIfExists(storage.resolve(variantName(userId, size))); }
+            imageTaskExecutor.execute(() -> createVariants(storage, original, userId));
+            return ServletUriComponentsBuilder
+                    .fromCurrentContextPath()
+                    .path("/user/image/" + variantName(userId, defaultSize)).toUriString();
+        } catch (TaskRejectedException exception) {
+            log.warn("Image pool is full, serving the original photo for {}", userId);
+            return ServletUriComponentsBuilder.fromCurrentContextPath().path("/user/image/" + userId + ".png").toUriString();
+        } catch (IOException exception) {
+            throw new ApiException("unable to save image");
+        }
+    }
+
+    @Override
+    public Resource getProfileImage(String filename) {
+        var name = IMAGE_NAME.matcher(filename);
+        if(!name.matches()) { throw new ApiException("Invalid image name"); }
+        var storage = storage();
+        var image = storage.resolve(filename);
+        if(!Files.exists(image) && name.group(2) != null) { image = storage.resolve(name.group(1) + ".png"); }
+        if(!Files.isReadable(image)) { throw new ApiException("Image not found"); }
+        return new FileSystemResource(image);
+    }
+
+    @Override
+    public boolean isVariant(Resource image) {
+        var name = IMAGE_NAME.matcher(image.getFilename());
+        return name.matches() && name.group(2) != null;
+    }
+
+    private void createVariants(Path storage, Path original, String userId) {
+        try(var stream = ImageIO.createImageInputStream(original.toFile())) {
+            var reader = reader(stream);
+            if(reader.isEmpty()) {
+                log.warn("Unsupported image format for {}, skipping variants", userId);
+                return;
+            }
+            BufferedImage image;
+            try { image = reader.get().read(0); } finally { reader.get().dispose(); }
+            for(var size : variantSizes) {
+                var temp = Files.createTempFile(storage, userId, ".tmp");
+                ImageIO.write(resize(image, size), "png", temp.toFile());
+                Files.move(temp, storage.resolve(variantName(userId, size)), REPLACE_EXISTING, ATOMIC_MOVE);
+            }
+        } catch (IOException | ApiException exception) {
+            log.error("Unable to create image variants for {}: {}", userId, exception.getMessage());
+        }
+    }
+
+    private static void checkPixels(InputStream input) throws IOException {
+        try(input; var stream = ImageIO.createImageInputStream(input)) {
+            reader(stream).ifPresent(ImageReader::dispose);
+        }
+    }
+
+    /**
+     * Finds a reader for the stream and checks the dimensions it reads from the header,
+     * which decodes no pixel data. Empty if no installed reader knows the format.
+     */
+    private static Optional<ImageReader> reader(ImageInputStream stream) throws IOException {
+        if(stream == null) { return Optional.empty(); }
+        var readers = ImageIO.getImageReaders(stream);
+        if(!readers.hasNext()) { return Optional.empty(); }
+        var reader = readers.next();
+        try {
+            reader.setInput(stream, true, true);
+            if((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PIXELS) { throw new ApiException("Image is too large"); }
+            return Optional.of(reader);
+        } catch (IOException | ApiException exception) {
+            reader.dispose();
+            throw exception;
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage image, int size) {
+        var scale = Math.min(1d, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        var width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        var height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        var resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        var graphics = resized.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+        return resized;
+    }
+
+    private static String variantName(String userId, int size) {
+        return userId + "-" + size + ".png";
+    }
+
+    private static Path storage() {
+        return Paths.get(FILE_STORAGE).toAbsolutePath().normalize();
+    }
+}
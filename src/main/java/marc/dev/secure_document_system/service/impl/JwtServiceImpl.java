@@ -2,26 +2,30 @@ package marc.dev.secure_document_system.service.impl;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import marc.dev.secure_document_system.cache.SecurityStampStore;
+import marc.dev.secure_document_system.cache.TokenCache;
 import marc.dev.secure_document_system.domain.Token;
 import marc.dev.secure_document_system.domain.TokenData;
 import marc.dev.secure_document_system.dto.User;
+import marc.dev.secure_document_system.enumeration.Authority;
 import marc.dev.secure_document_system.enumeration.TokenType;
 import marc.dev.secure_document_system.function.TriConsumer;
 import marc.dev.secure_document_system.securtity.JwtConfiguration;
+import marc.dev.secure_document_system.securtity.JwtKeyHolder;
 import marc.dev.secure_document_system.service.JwtService;
+import marc.dev.secure_document_system.service.TokenRevocationService;
 import marc.dev.secure_document_system.service.UserService;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
 import java.util.*;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -42,18 +46,19 @@ import static org.springframework.security.core.authority.AuthorityUtils.commaSe
 @RequiredArgsConstructor
 @Slf4j
 public class JwtServiceImpl extends JwtConfiguration implements JwtService {
+    private static final Map<String, String> HEADER = Map.of(TYPE, JWT_TYPE);
     private final UserService userService;
+    private final TokenCache tokenCache;
+    private final SecurityStampStore securityStampStore;
+    private final TokenRevocationService tokenRevocationService;
 
-    private final Supplier<SecretKey> key = ()-> Keys.hmacShaKeyFor(Decoders.BASE64.decode(getSecret()));
+    private final JwtKeyHolder keyHolder = new JwtKeyHolder();
 
-    private final Function<String, Claims> claimsFunction = token ->
-        Jwts.parser()
-                .verifyWith(key.get())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-    private final Function<String, String> subject = token ->getClaimsValue(token, Claims::getSubject);
+    private Claims claims(String token) {
+        return tokenCache.get(token, value -> keyHolder.getParser()
+                .parseSignedClaims(value)
+                .getPayload());
+    }
 
     private final BiFunction<HttpServletRequest, String, Optional<String>> extractToken = (request,cookieName) ->
             Optional.of(stream(request.getCookies() == null ? new Cookie[]{new Cookie(EMPTY_VALUE,EMPTY_VALUE)} : request.getCookies())
@@ -71,33 +76,63 @@ public class JwtServiceImpl extends JwtConfiguration implements JwtService {
 
     private final Supplier<JwtBuilder> builder = ()->
             Jwts.builder()
-                    .header().add(Map.of(TYPE, JWT_TYPE))
+                    .header().add(HEADER)
                     .and()
                     .audience().add(MARC_DEV_LLC)
                     .and()
                     .id(UUID.randomUUID().toString())
                     .issuedAt(from(now()))
                     .notBefore(new Date())
-                    .signWith(key.get(), Jwts.SIG.HS512);
+                    .signWith(keyHolder.getKey(), Jwts.SIG.HS512);
 
 
+    private final Function<User, Map<String, Object>> principalClaims = user -> {
+        var claims = new HashMap<String, Object>();
+        claims.put(USER_ID, user.getId());
+        claims.put(MFA, user.isMfa());
+        if(user.getEmail() != null) { claims.put(EMAIL, user.getEmail()); }
+        if(user.getFirstName() != null) { claims.put(FIRST_NAME, user.getFirstName()); }
+        if(user.getLastName() != null) { claims.put(LAST_NAME, user.getLastName()); }
+        return claims;
+    };
+
+    private final Function<Claims, User> principalFunction = claims -> {
+        var user = new User();
+        user.setId(claims.get(USER_ID, Long.class));
+        user.setUserId(claims.getSubject());
+        user.setEmail(claims.get(EMAIL, String.class));
+        user.setFirstName(claims.get(FIRST_NAME, String.class));
+        user.setLastName(claims.get(LAST_NAME, String.class));
+        user.setRole(claims.get(ROLE, String.class));
+        user.setAuthorities(claims.get(AUTHORITIES, String.class));
+        user.setMfa(Boolean.TRUE.equals(claims.get(MFA, Boolean.class)));
+        user.setSecurityStamp(claims.get(SECURITY_STAMP, Long.class));
+        user.setAccountNonExpired(true);
+        user.setAccountNonLocked(true);
+        user.setCredentialsNonExpired(true);
+        user.setEnabled(true);
+        return user;
+    };
+
     private final BiFunction<User,TokenType, String> buildToken = (user, type)->
         Objects.equals(type, ACCESS) ? builder.get()
                 .subject(user.getUserId())
                 .claim(AUTHORITIES, user.getAuthorities())
                 .claim(ROLE, user.getRole())
+                .claim(SECURITY_STAMP, securityStamp(user.getSecurityStamp()))
+                .claims(isStateless() ? principalClaims.apply(user) : Map.of())
                 .expiration(from(now().plusSeconds(getExpiration())))
                 .compact(): builder.get()
                 .subject(user.getUserId())
+                .claim(SECURITY_STAMP, securityStamp(user.getSecurityStamp()))
                 .expiration(from(now().plusSeconds(getExpiration())))
                 .compact();
 
-    private final TriConsumer<HttpServletResponse , User, TokenType> addCookie = (response, user, type) ->{
+    private final TriConsumer<HttpServletResponse , String, TokenType> addCookie = (response, token, type) ->{
 
         switch (type) {
             case ACCESS -> {
-                var accessToken = createToken(user, Token::getAccess);
-                var cookie = new Cookie(type.getValue(), accessToken);
+                var cookie = new Cookie(type.getValue(), token);
                 cookie.setHttpOnly(true);
                 cookie.setSecure(true);
                 cookie.setMaxAge(2 * 60);
@@ -107,8 +142,7 @@ public class JwtServiceImpl extends JwtConfiguration implements JwtService {
             }
 
             case REFRESH -> {
-                var refreshToken = createToken(user, Token::getRefresh);
-                var cookie = new Cookie(type.getValue(), refreshToken);
+                var cookie = new Cookie(type.getValue(), token);
                 cookie.setHttpOnly(true);
                 cookie.setSecure(true);
                 cookie.setMaxAge(2 * 60 * 60);
@@ -119,23 +153,70 @@ public class JwtServiceImpl extends JwtConfiguration implements JwtService {
         }
     };
 
-    private <T> T getClaimsValue(String token, Function<Claims, T> claims) {
-        return  claimsFunction.andThen(claims).apply(token);
+    @PostConstruct
+    public void reloadKey() {
+        keyHolder.reload(getSecret());
+    }
+
+    private static long securityStamp(Long stamp) {
+        return stamp == null ? 0L : stamp;
     }
 
-    public Function<String, List<GrantedAuthority>> authorities = (token)->
-            commaSeparatedStringToAuthorityList(new StringJoiner(AUTHORITY_DELIMITER)
-                    .add(claimsFunction.apply(token).get(AUTHORITIES, String.class))
-                    .add(ROLE_PREFIX + claimsFunction.apply(token).get(ROLE, String.class)).toString());
+    public Function<Claims, List<GrantedAuthority>> authorities = (claims)->
+            Authority.fromName(claims.get(ROLE, String.class))
+                    .filter(authority -> authority.getValue().equals(claims.get(AUTHORITIES, String.class)))
+                    .map(Authority::getGrantedAuthorities)
+                    .orElseGet(() -> commaSeparatedStringToAuthorityList(new StringJoiner(AUTHORITY_DELIMITER)
+                            .add(claims.get(AUTHORITIES, String.class))
+                            .add(ROLE_PREFIX + claims.get(ROLE, String.class)).toString()));
+
+    private final Function<User, List<GrantedAuthority>> userAuthorities = user ->
+            Authority.fromName(user.getRole())
+                    .filter(authority -> authority.getValue().equals(user.getAuthorities()))
+                    .map(Authority::getGrantedAuthorities)
+                    .orElseGet(() -> commaSeparatedStringToAuthorityList(new StringJoiner(AUTHORITY_DELIMITER)
+                            .add(user.getAuthorities())
+                            .add(ROLE_PREFIX + user.getRole()).toString()));
+
+    private TokenData statelessTokenData(Claims claims) {
+        return TokenData.builder()
+                .valid(Objects.equals(claims.get(SECURITY_STAMP, Long.class), securityStampStore.get(claims.getSubject())))
+                .authorities(authorities.apply(claims))
+                .claims(claims)
+                .user(principalFunction.apply(claims))
+                .build();
+    }
+
+    private TokenData tokenData(String token) {
+        var claims = claims(token);
+        if(tokenRevocationService.isRevoked(claims.getId())) {
+            return TokenData.builder().valid(false).claims(claims).authorities(List.of()).build();
+        }
+        if(isStateless() && claims.containsKey(USER_ID) && claims.containsKey(SECURITY_STAMP)) {
+            return statelessTokenData(claims);
+        }
+        var user = userService.getUserByUserId(claims.getSubject());
+        var stamp = claims.get(SECURITY_STAMP, Long.class);
+        return TokenData.builder()
+                .valid(Objects.equals(user.getUserId(), claims.getSubject()) && (stamp == null || stamp == securityStamp(user.getSecurityStamp())))
+                .authorities(claims.containsKey(AUTHORITIES) ? authorities.apply(claims) : userAuthorities.apply(user))
+                .claims(claims)
+                .user(user)
+                .build();
+    }
 
 
     @Override
-    public String createToken(User user, Function<Token, String> TokenFunction) {
-        var token = Token.builder()
+    public String createToken(User user, TokenType type) {
+        return buildToken.apply(user, type);
+    }
+
+    @Override
+    public Token createTokens(User user) {
+        return Token.builder()
                 .access(buildToken.apply(user, ACCESS))
                 .refresh(buildToken.apply(user, REFRESH))
                 .build();
-        return TokenFunction.apply(token);
     }
 
     @Override
@@ -145,20 +226,30 @@ public class JwtServiceImpl extends JwtConfiguration implements JwtService {
 
     @Override
     public void addCookie(HttpServletResponse response, User user, TokenType type) {
-        addCookie.accept(response, user, type);
+        addCookie.accept(response, createToken(user, type), type);
+
+    }
+
+    @Override
+    public void addCookie(HttpServletResponse response, String token, TokenType type) {
+        addCookie.accept(response, token, type);
+    }
 
+    @Override
+    public void addCookies(HttpServletResponse response, User user) {
+        var token = createTokens(user);
+        addCookie.accept(response, token.getAccess(), ACCESS);
+        addCookie.accept(response, token.getRefresh(), REFRESH);
+    }
+
+    @Override
+    public TokenData getTokenData(String token) {
+        return tokenData(token);
     }
 
     @Override
     public <T> T getTokenData(String token, Function<TokenData, T> tokenFunction) {
-        return  tokenFunction.apply(
-                TokenData.builder()
-                        .valid(Objects.equals(userService.getUserByUserId(subject.apply(token)).getUserId(), claimsFunction.apply(token).getSubject()))
-                        .authorities(authorities.apply(token))
-                        .claims(claimsFunction.apply(token))
-                        .user(userService.getUserByUserId(subject.apply(token)))
-                        .build()
-        );
+        return  tokenFunction.apply(getTokenData(token));
 
     }
 
@@ -177,4 +268,15 @@ public class JwtServiceImpl extends JwtConfiguration implements JwtService {
         }
 
     }
+
+    @Override
+    public void revokeToken(String token) {
+        try {
+            var claims = claims(token);
+            tokenRevocationService.revoke(claims.getId(), claims.getExpiration());
+            tokenCache.evict(token);
+        } catch (JwtException exception) {
+            log.debug("Skipping revocation of an invalid token: {}", exception.getMessage());
+        }
+    }
 }
@@ -0,0 +1,83 @@
+package marc.dev.secure_document_system.service.impl;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import marc.dev.secure_document_system.entity.RevokedTokenEntity;
+import marc.dev.secure_document_system.repository.RevokedTokenRepository;
+import marc.dev.secure_document_system.service.TokenRevocationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.LocalDateTime.now;
+
+/**
+ * Revoked token ids (jti) live in {@code revoked_tokens} until the token expires. An
+ * in-memory Bloom filter over the unexpired ids answers most lookups with a few hash
+ * probes; only a possible hit is confirmed against the table. The filter is rebuilt
+ * from the table on a schedule, which also drops expired rows and picks up revocations
+ * made by other instances.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile BloomFilter<CharSequence> filter;
+
+    @Value("${jwt.revocation.expected-insertions:100000}")
+    private int expectedInsertions;
+    @Value("${jwt.revocation.false-positive-probability:0.001}")
+    private double falsePositiveProbability;
+
+    @Override
+    public void revoke(String tokenId, Date expiration) {
+        if(tokenId == null || expiration == null || revokedTokenRepository.existsByTokenId(tokenId)) { return; }
+        revokedTokenRepository.save(RevokedTokenEntity.builder()
+                .tokenId(tokenId)
+                .expiresAt(LocalDateTime.ofInstant(expiration.toInstant(), ZoneId.systemDefault()))
+                .build());
+        lock.lock();
+        try {
+            filter.put(tokenId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && filter.mightContain(tokenId) && revokedTokenRepository.existsByTokenId(tokenId);
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        lock.lock();
+        try {
+            var tokenIds = revokedTokenRepository.findActiveTokenIds(now());
+            var rebuilt = BloomFilter.create(Funnels.stringFunnel(UTF_8), Math.max(expectedInsertions, tokenIds.size()), falsePositiveProbability);
+            tokenIds.forEach(rebuilt::put);
+            filter = rebuilt;
+            log.info("Loaded {} revoked token(s) into the revocation filter", tokenIds.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval:300000}", initialDelayString = "${jwt.revocation.rebuild-interval:300000}")
+    public void purgeAndRebuild() {
+        var purged = revokedTokenRepository.deleteExpired(now());
+        if(purged > 0) { log.info("Purged {} expired revoked token(s)", purged); }
+        rebuild();
+    }
+}
@@ -1,17 +1,14 @@
 package marc.dev.secure_document_system.service.impl;
 
-import dev.samstevens.totp.code.*;
-import dev.samstevens.totp.qr.QrData;
-import dev.samstevens.totp.qr.ZxingPngQrGenerator;
-import dev.samstevens.totp.secret.DefaultSecretGenerator;
-import dev.samstevens.totp.time.SystemTimeProvider;
-import dev.samstevens.totp.time.TimeProvider;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import marc.dev.secure_document_system.cache.CacheStore;
-import marc.dev.secure_document_system.domain.RequestContext;
+import marc.dev.secure_document_system.cache.LoginAttemptTracker;
+import marc.dev.secure_document_system.cache.RoleRegistry;
+import marc.dev.secure_document_system.cache.SecurityStampStore;
 import marc.dev.secure_document_system.dto.User;
+import marc.dev.secure_document_system.dto.api.IUserCredential;
 import marc.dev.secure_document_system.entity.ConfirmationEntity;
 import marc.dev.secure_document_system.entity.CredentialEntity;
 import marc.dev.secure_document_system.entity.RoleEntity;
@@ -22,30 +19,31 @@ import marc.dev.secure_document_system.event.UserEvent;
 import marc.dev.secure_document_system.exception.ApiException;
 import marc.dev.secure_document_system.repository.ConfirmationRepository;
 import marc.dev.secure_document_system.repository.CredentialRepository;
-import marc.dev.secure_document_system.repository.RoleRepository;
+import marc.dev.secure_document_system.repository.UserLoginWriter;
 import marc.dev.secure_document_system.repository.UserRepository;
+import marc.dev.secure_document_system.securtity.TotpVerifier;
+import marc.dev.secure_document_system.service.ImageService;
 import marc.dev.secure_document_system.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Map;
-import java.util.function.BiFunction;
-import java.util.function.Supplier;
 
-import static dev.samstevens.totp.util.Utils.getDataUriForImage;
-import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static java.time.LocalDateTime.now;
+import static java.util.stream.Collectors.toMap;
 import static marc.dev.secure_document_system.constant.Constants.*;
 import static marc.dev.secure_document_system.enumeration.EventType.REGISTRATION;
 import static marc.dev.secure_document_system.enumeration.EventType.RESETPASSWORD;
 import static marc.dev.secure_document_system.utils.UserUtils.createUserEntity;
 import static marc.dev.secure_document_system.utils.UserUtils.fromUserEntity;
+import static marc.dev.secure_document_system.utils.UserUtils.qrCodeImage;
+import static marc.dev.secure_document_system.utils.UserUtils.qrCodeSecret;
 import static marc.dev.secure_document_system.validation.UserValidation.verifyAccountStatus;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 
@@ -56,13 +54,21 @@ import static org.apache.commons.lang3.StringUtils.EMPTY;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final CredentialRepository credentialRepository;
     private final ConfirmationRepository confirmationRepository;
-    private final BCryptPasswordEncoder encoder;
-    private final CacheStore<String, Integer> userCache;
+    private final PasswordEncoder encoder;
+    private final LoginAttemptTracker loginAttemptTracker;
+    private final CacheStore<Long, byte[]> qrCodeCache;
+    private final UserLoginWriter userLoginWriter;
+    private final SecurityStampStore securityStampStore;
+    private final TotpVerifier totpVerifier;
+    private final ImageService imageService;
     private final ApplicationEventPublisher publisher;
 
+    @Value("${confirmation.ttl:86400}")
+    private long confirmationTtl;
+
     @Override
     public void createUser(String firstName, String lastName, String email, String password) {
         var user = userRepository.findByEmailIgnoreCase(email);
@@ -73,15 +79,19 @@ public class UserServiceImpl implements UserService {
         var userEntity = userRepository.save(createNewUser(firstName, lastName, email));
         var credentialEntity = new CredentialEntity(userEntity, encoder.encode(password));
         credentialRepository.save(credentialEntity);
-        var confirmationEntity = new ConfirmationEntity(userEntity);
+        var confirmationEntity = new ConfirmationEntity(userEntity, REGISTRATION);
         confirmationRepository.save(confirmationEntity);
         publisher.publishEvent(new UserEvent(userEntity, REGISTRATION, Map.of("key", confirmationEntity.getToken())));
     }
 
     @Override
     public RoleEntity getRoleName(String name) {
-        var role = roleRepository.findByNameIgnoreCase(name);
-        return role.orElseThrow(() -> new ApiException("Role not found"));
+        return roleRegistry.get(name).orElseThrow(() -> new ApiException("Role not found"));
+    }
+
+    @Override
+    public void refreshRoles() {
+        roleRegistry.refresh();
     }
 
     @Override
@@ -95,28 +105,26 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public void updateLoginAttempt(String email, LoginType loginType) {
-        var userEntity = getUserEntityByEmail(email);
-        RequestContext.setUserId(userEntity.getId());
+        var key = LoginAttemptTracker.normalize(email);
         switch (loginType) {
             case LOGIN_ATTEMPT -> {
-                if (userCache.get(userEntity.getEmail()) == null) {
-                    userEntity.setLoginAttempts(0);
-                    userEntity.setAccountNonLocked(true);
-                }
-                userEntity.setLoginAttempts(userEntity.getLoginAttempts() + 1);
-                userCache.put(userEntity.getEmail(), userEntity.getLoginAttempts());
-                if (userCache.get(userEntity.getEmail()) > 5) {
-                    userEntity.setAccountNonLocked(false);
+                var attempts = loginAttemptTracker.recordAttempt(key);
+                if (attempts > MAX_LOGIN_ATTEMPTS) {
+                    userLoginWriter.enqueue(key, attempts, false, null);
+                    throw new LockedException("Your account is currently locked");
                 }
+                userLoginWriter.enqueue(key, attempts, null, null);
             }
             case LOGIN_SUCCESS -> {
-                userEntity.setAccountNonLocked(true);
-                userEntity.setLoginAttempts(0);
-                userEntity.setLastLogin(now());
-                userCache.evict(userEntity.getEmail());
+                loginAttemptTracker.reset(key);
+                userLoginWriter.enqueue(key, 0, true, now());
             }
         }
-        userRepository.save(userEntity);
+    }
+
+    @Override
+    public void releaseLockout(String email) {
+        userLoginWriter.enqueue(LoginAttemptTracker.normalize(email), null, true, null);
     }
 
     @Override
@@ -139,31 +147,52 @@ public class UserServiceImpl implements UserService {
         return credentialById.orElseThrow(() -> new ApiException("Unable to find user credential"));
     }
 
+    @Override
+    public IUserCredential getUserCredentialByEmail(String email) {
+        return userRepository.findUserCredentialByEmail(email).orElseThrow(() -> new ApiException("User not found"));
+    }
+
+    @Override
+    public void upgradePasswordEncoding(Long credentialId, String password) {
+        credentialRepository.updatePassword(credentialId, encoder.encode(password));
+    }
+
     @Override
     public User setUpMfa(Long id) {
         var userEntity = getUserEntityById(id);
-        var codeSecret = qrCodeSecret.get();
-        userEntity.setQrCodeImageUri(qrCodeImageUri.apply(userEntity.getEmail(), codeSecret));
-        userEntity.setQrCodeSecret(codeSecret);
+        userEntity.setQrCodeSecret(qrCodeSecret.get());
         userEntity.setMfa(true);
         userRepository.save(userEntity);
+        qrCodeCache.evict(id);
         return fromUserEntity(userEntity, userEntity.getRole(), getUserCredentialById(userEntity.getId()));
     }
 
+    @Override
+    public byte[] getQrCodeImage(Long id) {
+        var image = qrCodeCache.get(id);
+        if(image == null) {
+            var userEntity = getUserEntityById(id);
+            if(!userEntity.isMfa()) { throw new ApiException("MFA is not set up for this account"); }
+            image = qrCodeImage.apply(userEntity.getEmail(), userEntity.getQrCodeSecret());
+            qrCodeCache.put(id, image);
+        }
+        return image;
+    }
+
     @Override
     public User cancelMfa(Long id) {
         var userEntity = getUserEntityById(id);
         userEntity.setMfa(false);
         userEntity.setQrCodeSecret(EMPTY);
-        userEntity.setQrCodeImageUri(EMPTY);
         userRepository.save(userEntity);
+        qrCodeCache.evict(id);
         return fromUserEntity(userEntity, userEntity.getRole(), getUserCredentialById(userEntity.getId()));
     }
 
     @Override
     public User verifyQrCode(String userId, String qrCode) {
         var userEntity = getUserEntityByUserId(userId);
-        verifyCode(qrCode, userEntity.getQrCodeSecret());
+        if(!totpVerifier.verify(userEntity.getUserId(), userEntity.getQrCodeSecret(), qrCode)) { throw new ApiException("Invalid  QR Code. PLease try again."); }
         return fromUserEntity(userEntity, userEntity.getRole(), getUserCredentialById(userEntity.getId()));
     }
 
@@ -175,7 +204,7 @@ public class UserServiceImpl implements UserService {
         if(confirmation != null) {
             publisher.publishEvent(new UserEvent(user, RESETPASSWORD, Map.of("key", confirmation.getToken())));
         }else {
-            var confirmationEntity = new ConfirmationEntity(user);
+            var confirmationEntity = new ConfirmationEntity(user, RESETPASSWORD);
             confirmationRepository.save(confirmationEntity);
             publisher.publishEvent(new UserEvent(user, RESETPASSWORD, Map.of("key", confirmationEntity.getToken())));
         }
@@ -200,10 +229,12 @@ public class UserServiceImpl implements UserService {
     @Override
     public void updatePassword(String userId, String newPassword, String confirmNewPassword) {
         if(!confirmNewPassword.equals(newPassword)){throw new ApiException("Password don't match. Please try again");}
-        var user = getUserByUserId(userId);
+        var user = getUserEntityByUserId(userId);
         var credential = getUserCredentialById(user.getId());
         credential.setPassword(encoder.encode(newPassword));
         credentialRepository.save(credential);
+        bumpSecurityStamp(user);
+        userRepository.save(user);
     }
 
     @Override
@@ -216,6 +247,8 @@ public class UserServiceImpl implements UserService {
         if(!encoder.matches(currentPassword, credential.getPassword())){throw new ApiException("Existing passwords is incorrect. Please try again");}
         credential.setPassword(encoder.encode(newPassword));
         credentialRepository.save(credential);
+        bumpSecurityStamp(user);
+        userRepository.save(user);
     }
 
     @Override
@@ -223,7 +256,7 @@ public class UserServiceImpl implements UserService {
         var userEntity = getUserEntityByUserId(userId);
         userEntity.setFirstName(firstName);
         userEntity.setLastName(lastName);
-        userEntity.setEmail(email);
+        userEntity.setEmail(LoginAttemptTracker.normalize(email));
         userEntity.setPhone(phone);
         userEntity.setBio(bio);
 
@@ -236,6 +269,7 @@ public class UserServiceImpl implements UserService {
     public void updateRole(String userId, String role) {
         var userEntity = getUserEntityByUserId(userId);
         userEntity.setRole(getRoleName(role));
+        bumpSecurityStamp(userEntity);
         userRepository.save(userEntity);
 
     }
@@ -244,6 +278,7 @@ public class UserServiceImpl implements UserService {
     public void toggleAccountExpired(String userId) {
         var userEntity = getUserEntityByUserId(userId);
         userEntity.setAccountNonExpired(!userEntity.isAccountNonExpired());
+        bumpSecurityStamp(userEntity);
         userRepository.save(userEntity);
     }
 
@@ -260,6 +295,7 @@ public class UserServiceImpl implements UserService {
 //            credential.setUpdatedAt(LocalDateTime.of(1996, 7, 12,11,11));
 //        }
 
+        bumpSecurityStamp(userEntity);
         userRepository.save(userEntity);
 
     }
@@ -268,7 +304,7 @@ public class UserServiceImpl implements UserService {
     public void toggleAccountEnabled(String userId) {
         var userEntity = getUserEntityByUserId(userId);
         userEntity.setEnabled(!userEntity.isEnabled());
-
+        bumpSecurityStamp(userEntity);
         userRepository.save(userEntity);
 
     }
@@ -277,7 +313,7 @@ public class UserServiceImpl implements UserService {
     public void toggleCredentialExpired(String userId) {
         var userEntity = getUserEntityByUserId(userId);
         userEntity.setAccountNonLocked(!userEntity.isAccountNonLocked());
-
+        bumpSecurityStamp(userEntity);
         userRepository.save(userEntity);
 
     }
@@ -285,8 +321,8 @@ public class UserServiceImpl implements UserService {
     @Override
     public String uploadPhoto(String userId, MultipartFile file) {
         var userEntity = getUserEntityByUserId(userId);
-        var photoUrl = photoFunction.apply(userId, file);
-        userEntity.setImageUrl(photoUrl + "?timestamp=" + System.currentTimeMillis());
+        var photoUrl = imageService.saveProfileImage(userId, file) + "?timestamp=" + System.currentTimeMillis();
+        userEntity.setImageUrl(photoUrl);
         userRepository.save(userEntity);
         return photoUrl;
     }
@@ -297,59 +333,18 @@ public class UserServiceImpl implements UserService {
         return fromUserEntity(userEntity, userEntity.getRole(), getUserCredentialById(userEntity.getId()));
     }
 
-    public  final BiFunction<String, MultipartFile, String> photoFunction =(userId, file)->{
-        var filename = userId + ".png";
-
-        try {
-            var fileStorageLocation = Paths.get(FILE_STORAGE).toAbsolutePath().normalize();
-            if(!Files.exists(fileStorageLocation)){Files.createDirectories(fileStorageLocation);}
-            Files.copy(file.getInputStream(), fileStorageLocation.resolve(filename), REPLACE_EXISTING);
-            return ServletUriComponentsBuilder
-                    .fromCurrentContextPath()
-                    .path("/user/image/" + filename).toUriString();
-        }catch(Exception exception){
-            throw new ApiException("unable to save image");
-        }
-    };
-
-
-
-    private boolean verifyCode(String qrCode, String qrCodeSecret) {
-        TimeProvider timeProvider = new SystemTimeProvider();
-        CodeGenerator codeGenerator = new DefaultCodeGenerator();
-        CodeVerifier codeVerifier = new DefaultCodeVerifier(codeGenerator, timeProvider);
-
-        if(codeVerifier.isValidCode(qrCodeSecret, qrCode)){
-            return true;
-        }else {
-            throw new ApiException("Invalid  QR Code. PLease try again.");
-        }
+    @Override
+    public Map<Long, User> getUsersById(Collection<Long> ids) {
+        return credentialRepository.findAllByUserEntityIdIn(ids).stream()
+                .collect(toMap(credential -> credential.getUserEntity().getId(),
+                        credential -> fromUserEntity(credential.getUserEntity(), credential.getUserEntity().getRole(), credential)));
     }
 
-    public static BiFunction<String,String, QrData> qrDataFunction = (email, qrCodeSecret)-> new QrData.Builder()
-            .issuer(MARC_DEV_LLC)
-            .label(email)
-            .secret(qrCodeSecret)
-            .algorithm(HashingAlgorithm.SHA1)
-            .digits(6)
-            .period(30)
-            .build();
-
-    public static Supplier<String> qrCodeSecret = () -> new DefaultSecretGenerator().generate();
-
-
-    public static BiFunction<String, String, String> qrCodeImageUri = (email, qrCodeSecret) ->{
-        var data = qrDataFunction.apply(email, qrCodeSecret);
-        var generator = new ZxingPngQrGenerator();
-        byte[] imageData;
-
-        try{
-            imageData = generator.generate(data);
-        }catch(Exception exception){
-            throw new ApiException("Unable to create Qr code URI");
-        }
-        return getDataUriForImage(imageData, generator.getImageMimeType());
-    };
+    private void bumpSecurityStamp(UserEntity userEntity) {
+        var stamp = userEntity.getSecurityStamp() == null ? 0L : userEntity.getSecurityStamp();
+        userEntity.setSecurityStamp(stamp + 1);
+        securityStampStore.evictAfterCommit(userEntity.getUserId());
+    }
 
     private UserEntity getUserEntityByUserId(String userId) {
         var userByUserId = userRepository.findUserByUserId(userId);
@@ -367,13 +362,21 @@ public class UserServiceImpl implements UserService {
     }
 
     private ConfirmationEntity getUserConfirmation(String key) {
-        return confirmationRepository.findByToken(key).orElseThrow(() -> new ApiException("Confirmation key not found"));
+        var confirmation = confirmationRepository.findByToken(key).orElseThrow(() -> new ApiException("Confirmation key not found"));
+        if(confirmation.isExpired(confirmationTtl)) { throw new ApiException("Confirmation key has expired. Please request a new one"); }
+        return confirmation;
     }
     private ConfirmationEntity getUserConfirmation(UserEntity user) {
-        return confirmationRepository.findByUserEntity(user).orElse(null);
+        var confirmation = confirmationRepository.findByUserEntity(user).orElse(null);
+        if(confirmation != null && confirmation.isExpired(confirmationTtl)) {
+            confirmationRepository.delete(confirmation);
+            confirmationRepository.flush();
+            return null;
+        }
+        return confirmation;
     }
     private UserEntity createNewUser(String firstName, String lastName, String email) {
         var role = getRoleName(Authority.USER.name());
-        return createUserEntity(firstName, lastName, email, role);
+        return createUserEntity(firstName, lastName, LoginAttemptTracker.normalize(email), role);
     }
 }
\ No newline at end of file
@@ -3,7 +3,6 @@ package marc.dev.secure_document_system.utils;
 import marc.dev.secure_document_system.dto.User;
 import marc.dev.secure_document_system.dto.Document;
 import marc.dev.secure_document_system.entity.DocumentEntity;
-import org.springframework.beans.BeanUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
@@ -11,8 +10,19 @@ public class DocumentUtils {
 
     public static Document fromDocumentEntity(DocumentEntity documentEntity, User createdBy, User updatedBy){
         var document = new Document();
-
-        BeanUtils.copyProperties(documentEntity, document);
+        document.setId(documentEntity.getId());
+        document.setDocumentId(documentEntity.getDocumentId());
+        document.setName(documentEntity.getName());
+        document.setDescription(documentEntity.getDescription());
+        document.setUri(documentEntity.getUri());
+        document.setSize(documentEntity.getSize());
+        document.setFormattedSize(documentEntity.getFormattedSize());
+        document.setIcon(documentEntity.getIcon());
+        document.setExtension(documentEntity.getExtension());
+        document.setChecksum(documentEntity.getChecksum());
+        document.setReferenceId(documentEntity.getReferenceId());
+        document.setCreatedAt(documentEntity.getCreatedAt());
+        document.setUpdatedAt(documentEntity.getUpdatedAt());
         document.setOwnerName(createdBy.getFirstName() + " " + createdBy.getLastName());
         document.setOwnerEmail(createdBy.getEmail());
         document.setOwnerPhone(createdBy.getPhone());
@@ -0,0 +1,56 @@
+package marc.dev.secure_document_system.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import marc.dev.secure_document_system.domain.Response;
+import marc.dev.secure_document_system.dtorequest.LoginRequest;
+import marc.dev.secure_document_system.exception.ApiException;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyMap;
+
+/**
+ * One mapper for the filters and handlers that write JSON outside of Spring MVC. Readers and
+ * writers are immutable and thread-safe, so the ones for the hot types are built once.
+ */
+public class JsonUtils {
+    public static final ObjectMapper MAPPER = new ObjectMapper().configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, true);
+    public static final ObjectReader LOGIN_REQUEST_READER = MAPPER.readerFor(LoginRequest.class);
+    public static final ObjectWriter RESPONSE_WRITER = MAPPER.writerFor(Response.class);
+    private static final String TIME_MARKER = "{{time}}";
+    private static final String PATH_MARKER = "{{path}}";
+    private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+
+    private JsonUtils() {}
+
+    /** Serializes a response once, leaving only its time and path to be filled in per request. */
+    public static ResponseTemplate responseTemplate(HttpStatus status, String message, String rootCause) {
+        try {
+            var json = RESPONSE_WRITER.writeValueAsString(new Response(TIME_MARKER, status.value(), PATH_MARKER, status, message, rootCause, emptyMap()));
+            var time = json.indexOf(TIME_MARKER);
+            var path = json.indexOf(PATH_MARKER);
+            return new ResponseTemplate(json.substring(0, time).getBytes(UTF_8),
+                    json.substring(time + TIME_MARKER.length(), path).getBytes(UTF_8),
+                    json.substring(path + PATH_MARKER.length()).getBytes(UTF_8));
+        } catch (IOException exception) {
+            throw new ApiException(exception.getMessage());
+        }
+    }
+
+    public record ResponseTemplate(byte[] head, byte[] middle, byte[] tail) {
+        public void write(OutputStream outputStream, String time, String path) throws IOException {
+            outputStream.write(head);
+            outputStream.write(ENCODER.quoteAsUTF8(time));
+            outputStream.write(middle);
+            outputStream.write(ENCODER.quoteAsUTF8(path));
+            outputStream.write(tail);
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package marc.dev.secure_document_system.utils;
 
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import marc.dev.secure_document_system.domain.Response;
 import marc.dev.secure_document_system.exception.ApiException;
+import marc.dev.secure_document_system.exception.ServiceBusyException;
+import marc.dev.secure_document_system.exception.TooManyRequestsException;
+import marc.dev.secure_document_system.utils.JsonUtils.ResponseTemplate;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -17,23 +19,30 @@ import org.springframework.security.authentication.LockedException;
 import javax.security.auth.login.CredentialExpiredException;
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 
 import static io.jsonwebtoken.lang.Strings.EMPTY;
 import static java.time.LocalTime.now;
 import static java.util.Collections.emptyMap;
+import static marc.dev.secure_document_system.utils.JsonUtils.RESPONSE_WRITER;
+import static marc.dev.secure_document_system.utils.JsonUtils.responseTemplate;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
 import static org.springframework.http.HttpStatus.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 public class RequestUtils {
 
 
+     private static final int MAX_ERROR_TEMPLATES = 64;
+     private static final Map<ErrorKey, ResponseTemplate> errorTemplates = new ConcurrentHashMap<>();
+
      private static final BiConsumer<HttpServletResponse, Response> writeResponse = (httpServletResponse, response) ->{
          try {
              var outputStream = httpServletResponse.getOutputStream();
-             new ObjectMapper().writeValue(outputStream,response);
+             RESPONSE_WRITER.writeValue(outputStream,response);
          }catch (Exception exception) {
              throw new ApiException(exception.getMessage());
      }
@@ -74,23 +83,53 @@ public class RequestUtils {
     }
     public static void handleErrorResponse(HttpServletRequest request, HttpServletResponse response, Exception exception) {
         if(exception instanceof AccessDeniedException) {
-            var apiResponse = getErrorResponse(request, response, exception, FORBIDDEN);
-            writeResponse.accept(response, apiResponse);
+            writeErrorResponse(request, response, exception, FORBIDDEN);
         }else if(exception instanceof InsufficientAuthenticationException){
-            var apiResponse = getErrorResponse(request, response, exception, UNAUTHORIZED);
-            writeResponse.accept(response, apiResponse);
+            writeErrorResponse(request, response, exception, UNAUTHORIZED);
         }else if(exception instanceof MismatchedInputException){
-            var apiResponse = getErrorResponse(request, response, exception, BAD_REQUEST);
-            writeResponse.accept(response, apiResponse);
+            writeErrorResponse(request, response, exception, BAD_REQUEST);
+        }else if(exception instanceof TooManyRequestsException tooManyRequestsException){
+            response.setHeader(RETRY_AFTER, String.valueOf(tooManyRequestsException.getRetryAfterSeconds()));
+            writeErrorResponse(request, response, exception, TOO_MANY_REQUESTS);
+        }else if(exception instanceof ServiceBusyException){
+            writeErrorResponse(request, response, exception, SERVICE_UNAVAILABLE);
         }else if(exception instanceof DisabledException || exception instanceof LockedException || exception instanceof BadCredentialsException  || exception instanceof CredentialExpiredException || exception instanceof ApiException){
-            Response apiResponse = getErrorResponse(request, response, exception, BAD_REQUEST);
-            writeResponse.accept(response, apiResponse);
+            writeErrorResponse(request, response, exception, BAD_REQUEST);
         }else{
-            Response apiResponse = getErrorResponse(request, response, exception, INTERNAL_SERVER_ERROR);
-            writeResponse.accept(response, apiResponse);
+            writeErrorResponse(request, response, exception, INTERNAL_SERVER_ERROR);
+        }
+    }
+
+
+    private static void writeErrorResponse(HttpServletRequest request, HttpServletResponse response, Exception exception, HttpStatus status) {
+        var template = errorTemplate(exception, status);
+        if(template == null) {
+            writeResponse.accept(response, getErrorResponse(request, response, exception, status));
+            return;
+        }
+        response.setContentType(APPLICATION_JSON_VALUE);
+        response.setStatus(status.value());
+        try {
+            template.write(response.getOutputStream(), LocalDateTime.now().toString(), request.getRequestURI());
+        } catch (Exception writeException) {
+            throw new ApiException(writeException.getMessage());
+        }
+    }
+
+    /** Fixed security errors always produce the same body apart from time and path, so they are serialized once. */
+    private static ResponseTemplate errorTemplate(Exception exception, HttpStatus status) {
+        if(exception.getCause() != null) { return null; }
+        if(!(exception instanceof AccessDeniedException || exception instanceof InsufficientAuthenticationException
+                || exception instanceof LockedException || exception instanceof DisabledException || exception instanceof BadCredentialsException)) { return null; }
+        var key = new ErrorKey(exception.getClass(), exception.getMessage(), status);
+        var template = errorTemplates.get(key);
+        if(template == null && errorTemplates.size() < MAX_ERROR_TEMPLATES) {
+            template = errorTemplates.computeIfAbsent(key, ignored -> responseTemplate(status, errorReason.apply(exception, status), getRootCauseMessage(exception)));
         }
+        return template;
     }
 
+    private record ErrorKey(Class<?> type, String message, HttpStatus status) {}
 
     private static Response getErrorResponse(HttpServletRequest request, HttpServletResponse response, Exception exception, HttpStatus status) {
         response.setContentType(APPLICATION_JSON_VALUE);
@@ -5,21 +5,22 @@ import dev.samstevens.totp.qr.QrData;
 import dev.samstevens.totp.qr.ZxingPngQrGenerator;
 import dev.samstevens.totp.secret.DefaultSecretGenerator;
 import marc.dev.secure_document_system.dto.User;
+import marc.dev.secure_document_system.dto.api.IUserCredential;
 import marc.dev.secure_document_system.entity.CredentialEntity;
 import marc.dev.secure_document_system.entity.RoleEntity;
 import marc.dev.secure_document_system.entity.UserEntity;
 
 import marc.dev.secure_document_system.exception.ApiException;
-import org.springframework.beans.BeanUtils;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
-import static dev.samstevens.totp.util.Utils.getDataUriForImage;
 import static java.time.LocalDateTime.now;
 import static marc.dev.secure_document_system.constant.Constants.MARC_DEV_LLC;
 import static marc.dev.secure_document_system.constant.Constants.NINETY_DAYS;
+import static marc.dev.secure_document_system.constant.Constants.QR_CODE_PATH;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 public class UserUtils {
     public static UserEntity createUserEntity(String firstName, String lastName, String email, RoleEntity role) {
@@ -34,6 +35,7 @@ public class UserUtils {
                 .mfa(false)
                 .enabled(false)
                 .loginAttempts(0)
+                .securityStamp(0L)
                 .qrCodeSecret(EMPTY)
                 .phone(EMPTY)
                 .bio(EMPTY)
@@ -45,18 +47,66 @@ public class UserUtils {
 
     public static User fromUserEntity(UserEntity userEntity, RoleEntity role, CredentialEntity credentialEntity) {
         User user = new User();
-        BeanUtils.copyProperties(userEntity, user);
+        user.setId(userEntity.getId());
+        user.setCreatedBy(userEntity.getCreatedBy());
+        user.setUpdatedBy(userEntity.getUpdatedBy());
+        user.setUserId(userEntity.getUserId());
+        user.setFirstName(userEntity.getFirstName());
+        user.setLastName(userEntity.getLastName());
+        user.setEmail(userEntity.getEmail());
+        user.setPhone(userEntity.getPhone());
+        user.setBio(userEntity.getBio());
+        user.setImageUrl(userEntity.getImageUrl());
+        user.setQrCodeImageUri(userEntity.isMfa() ? QR_CODE_PATH : null);
         user.setLastLogin(userEntity.getLastLogin().toString());
-        user.setCredentialsNonExpired(isCredentialsNonExpired(credentialEntity));
         user.setCreatedAt(userEntity.getCreatedAt().toString());
         user.setUpdatedAt(userEntity.getUpdatedAt().toString());
+        user.setAccountNonExpired(userEntity.isAccountNonExpired());
+        user.setAccountNonLocked(userEntity.isAccountNonLocked());
+        user.setCredentialsNonExpired(isCredentialsNonExpired(credentialEntity));
+        user.setEnabled(userEntity.isEnabled());
+        user.setMfa(userEntity.isMfa());
+        user.setLoginAttempts(userEntity.getLoginAttempts());
+        user.setSecurityStamp(userEntity.getSecurityStamp());
         user.setRole(role.getName());
         user.setAuthorities(role.getAuthorities().getValue());
         return user;
     }
 
+    public static User fromUserCredential(IUserCredential userCredential) {
+        User user = new User();
+        user.setId(userCredential.getId());
+        user.setCreatedBy(userCredential.getCreatedBy());
+        user.setUpdatedBy(userCredential.getUpdatedBy());
+        user.setUserId(userCredential.getUserId());
+        user.setFirstName(userCredential.getFirstName());
+        user.setLastName(userCredential.getLastName());
+        user.setEmail(userCredential.getEmail());
+        user.setPhone(userCredential.getPhone());
+        user.setBio(userCredential.getBio());
+        user.setImageUrl(userCredential.getImageUrl());
+        user.setQrCodeImageUri(Boolean.TRUE.equals(userCredential.getMfa()) ? QR_CODE_PATH : null);
+        user.setLastLogin(userCredential.getLastLogin().toString());
+        user.setCreatedAt(userCredential.getCreatedAt().toString());
+        user.setUpdatedAt(userCredential.getUpdatedAt().toString());
+        user.setAccountNonExpired(Boolean.TRUE.equals(userCredential.getAccountNonExpired()));
+        user.setAccountNonLocked(Boolean.TRUE.equals(userCredential.getAccountNonLocked()));
+        user.setCredentialsNonExpired(isCredentialsNonExpired(userCredential.getCredentialUpdatedAt()));
+        user.setEnabled(Boolean.TRUE.equals(userCredential.getEnabled()));
+        user.setMfa(Boolean.TRUE.equals(userCredential.getMfa()));
+        user.setLoginAttempts(userCredential.getLoginAttempts());
+        user.setSecurityStamp(userCredential.getSecurityStamp());
+        user.setRole(userCredential.getRole());
+        user.setAuthorities(userCredential.getAuthorities().getValue());
+        return user;
+    }
+
     public static boolean isCredentialsNonExpired(CredentialEntity credentialEntity) {
-        return credentialEntity.getUpdatedAt().plusDays(NINETY_DAYS).isAfter(now());
+        return isCredentialsNonExpired(credentialEntity.getUpdatedAt());
+    }
+
+    public static boolean isCredentialsNonExpired(LocalDateTime updatedAt) {
+        return updatedAt.plusDays(NINETY_DAYS).isAfter(now());
     }
 
     public static BiFunction<String, String, QrData> qrDataFunction = (email, qrCodeSecret) -> new QrData.Builder()
@@ -68,18 +118,13 @@ public class UserUtils {
             .period(30)
             .build();
 
-    public static BiFunction<String, String, String> qrCodeImageUri = (email, qrCodeSecret) -> {
+    public static BiFunction<String, String, byte[]> qrCodeImage = (email, qrCodeSecret) -> {
         var data = qrDataFunction.apply(email, qrCodeSecret);
-        var generator = new ZxingPngQrGenerator();
-        byte[] imageData;
         try {
-            imageData = generator.generate(data);
+            return new ZxingPngQrGenerator().generate(data);
         } catch (Exception exception) {
-            //throw new ApiException(exception.getMessage());
-            throw new ApiException("Unable to create QR code URI");
+            throw new ApiException("Unable to create QR code image");
         }
-        return getDataUriForImage(imageData, generator.getImageMimeType());
-
     };
 
     public static Supplier<String> qrCodeSecret = () -> new DefaultSecretGenerator().generate();
@@ -0,0 +1,21 @@
+-- Manual schema changes that hibernate ddl-auto=update does not apply on its own.
+
+-- MFA QR codes are rendered on demand by GET /user/mfa/qrcode instead of being stored on the user row.
+ALTER TABLE users DROP COLUMN qr_code_image_uri;
+
+-- Ids are now allocated in blocks of 50 with the pooled-lo optimizer, which treats next_val as the
+-- low end of the next block. Run before deploying so the first block starts above every existing id.
+-- Only tables that exist before the upgrade are listed; revoked_tokens and email_outbox are created by
+-- ddl-auto on first start and draw their ids from the raised sequence.
+UPDATE primary_key_seq SET next_val = GREATEST(next_val,
+    (SELECT COALESCE(MAX(id), 0) + 1 FROM users),
+    (SELECT COALESCE(MAX(id), 0) + 1 FROM credentials),
+    (SELECT COALESCE(MAX(id), 0) + 1 FROM confirmations),
+    (SELECT COALESCE(MAX(id), 0) + 1 FROM documents),
+    (SELECT COALESCE(MAX(id), 0) + 1 FROM roles));
+
+-- Emails are stored trimmed and in lower case, the form the login write-behind matches on.
+UPDATE users SET email = LOWER(TRIM(email));
+
+-- Confirmation tokens get a unique constraint from ddl-auto; remove any duplicates first so it can be created.
+DELETE c1 FROM confirmations c1 JOIN confirmations c2 ON c1.token = c2.token AND c1.id > c2.id;
@@ -0,0 +1,25 @@
+package marc.dev.secure_document_system.enumeration;
+
+import org.junit.jupiter.api.Test;
+
+import static marc.dev.secure_document_system.enumeration.Authority.MANAGER;
+import static marc.dev.secure_document_system.enumeration.Authority.USER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthorityTests {
+
+	@Test
+	void fromNameTellsRolesWithTheSameAuthoritiesApart() {
+		assertEquals(USER.getValue(), MANAGER.getValue());
+		assertEquals(USER, Authority.fromName("USER").orElseThrow());
+		assertEquals(MANAGER, Authority.fromName("MANAGER").orElseThrow());
+		assertTrue(MANAGER.getGrantedAuthorities().stream().anyMatch(authority -> "ROLE_MANAGER".equals(authority.getAuthority())));
+	}
+
+	@Test
+	void fromNameIgnoresUnknownNames() {
+		assertTrue(Authority.fromName("GUEST").isEmpty());
+		assertTrue(Authority.fromName(null).isEmpty());
+	}
+}
@@ -0,0 +1,34 @@
+package marc.dev.secure_document_system.enumeration.converter;
+
+import marc.dev.secure_document_system.enumeration.Authority;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Stream;
+
+import static marc.dev.secure_document_system.enumeration.Authority.MANAGER;
+import static marc.dev.secure_document_system.enumeration.Authority.USER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RoleConverterTests {
+	private final RoleConverter roleConverter = new RoleConverter();
+
+	@Test
+	void resolvesEveryStoredValueLikeTheFirstMatchingConstant() {
+		for(var authority : Authority.values()) {
+			var firstMatch = Stream.of(Authority.values())
+					.filter(candidate -> candidate.getValue().equals(authority.getValue()))
+					.findFirst()
+					.orElseThrow();
+			assertEquals(firstMatch, roleConverter.convertToEntityAttribute(roleConverter.convertToDatabaseColumn(authority)));
+		}
+		assertEquals(USER, roleConverter.convertToEntityAttribute(MANAGER.getValue()));
+	}
+
+	@Test
+	void rejectsUnknownValuesAndPassesNullThrough() {
+		assertNull(roleConverter.convertToEntityAttribute(null));
+		assertThrows(IllegalArgumentException.class, () -> roleConverter.convertToEntityAttribute("unknown:read"));
+	}
+}
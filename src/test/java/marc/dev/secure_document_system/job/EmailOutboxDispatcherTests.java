@@ -0,0 +1,117 @@
+package marc.dev.secure_document_system.job;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import marc.dev.secure_document_system.entity.EmailOutboxEntity;
+import marc.dev.secure_document_system.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static java.time.LocalDateTime.now;
+import static marc.dev.secure_document_system.enumeration.OutboxStatus.DEAD;
+import static marc.dev.secure_document_system.enumeration.OutboxStatus.PENDING;
+import static marc.dev.secure_document_system.enumeration.OutboxStatus.SENT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxDispatcherTests {
+	private final EmailOutboxRepository emailOutboxRepository = mock(EmailOutboxRepository.class);
+	private final JavaMailSender sender = mock(JavaMailSender.class);
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private EmailOutboxDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() {
+		dispatcher = new EmailOutboxDispatcher(emailOutboxRepository, sender, new TransactionTemplate(mock(PlatformTransactionManager.class)), registry);
+		ReflectionTestUtils.setField(dispatcher, "fromEmail", "noreply@example.com");
+		ReflectionTestUtils.setField(dispatcher, "batchSize", 50);
+		ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+		ReflectionTestUtils.setField(dispatcher, "initialBackoff", 30L);
+		ReflectionTestUtils.setField(dispatcher, "maxBackoff", 3600L);
+		when(sender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+	}
+
+	@Test
+	void sendsTheBatchInOneCallAndMarksItSent() {
+		when(emailOutboxRepository.claimDue(any(), eq(50))).thenReturn(List.of(email(1L, 0), email(2L, 0)));
+
+		dispatcher.dispatch();
+
+		var messages = ArgumentCaptor.forClass(MimeMessage[].class);
+		verify(sender).send(messages.capture());
+		assertEquals(2, messages.getValue().length);
+		verify(emailOutboxRepository).markSent(eq(List.of(1L, 2L)), eq(SENT), any());
+		verify(emailOutboxRepository, never()).markFailed(any(), any(), anyInt(), any(), anyString());
+		assertEquals(2, registry.counter("email.outbox.sent").count());
+	}
+
+	@Test
+	void retriesFailedMessagesWithExponentialBackoff() {
+		when(emailOutboxRepository.claimDue(any(), eq(50))).thenReturn(List.of(email(1L, 0), email(2L, 1)));
+		doThrow(new MailSendException("Rejected")).when(sender).send(any(MimeMessage[].class));
+
+		var before = now();
+		dispatcher.dispatch();
+
+		var nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(emailOutboxRepository).markFailed(eq(1L), eq(PENDING), eq(1), nextAttempt.capture(), anyString());
+		assertWithin(before.plusSeconds(30), nextAttempt.getValue());
+		verify(emailOutboxRepository).markFailed(eq(2L), eq(PENDING), eq(2), nextAttempt.capture(), anyString());
+		assertWithin(before.plusSeconds(60), nextAttempt.getValue());
+		verify(emailOutboxRepository, never()).markSent(any(), any(), any());
+		assertEquals(2, registry.counter("email.outbox.retried").count());
+	}
+
+	@Test
+	void splitsPartialFailuresAndDeadLettersTheLastAttempt() {
+		when(emailOutboxRepository.claimDue(any(), eq(50))).thenReturn(List.of(email(1L, 0), email(2L, 2)));
+		doAnswer(invocation -> {
+			MimeMessage second = invocation.getArgument(1);
+			throw new MailSendException(Map.of(second, new Exception("Mailbox unavailable")));
+		}).when(sender).send(any(MimeMessage[].class));
+
+		dispatcher.dispatch();
+
+		verify(emailOutboxRepository).markSent(eq(List.of(1L)), eq(SENT), any());
+		verify(emailOutboxRepository).markFailed(eq(2L), eq(DEAD), eq(3), any(), anyString());
+		assertEquals(1, registry.counter("email.outbox.dead").count());
+	}
+
+	private static void assertWithin(LocalDateTime expected, LocalDateTime actual) {
+		assertTrue(!actual.isBefore(expected) && actual.isBefore(expected.plusSeconds(5)), () -> actual + " is not close to " + expected);
+	}
+
+	private static EmailOutboxEntity email(Long id, int attempts) {
+		var email = EmailOutboxEntity.builder()
+				.recipient("user" + id + "@example.com")
+				.subject("Subject")
+				.body("Body")
+				.status(PENDING)
+				.attempts(attempts)
+				.nextAttemptAt(now())
+				.build();
+		email.setId(id);
+		return email;
+	}
+}
@@ -0,0 +1,88 @@
+package marc.dev.secure_document_system.job;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Message;
+import jakarta.mail.internet.InternetAddress;
+import marc.dev.secure_document_system.entity.EmailOutboxEntity;
+import marc.dev.secure_document_system.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static java.time.LocalDateTime.now;
+import static marc.dev.secure_document_system.enumeration.OutboxStatus.PENDING;
+import static marc.dev.secure_document_system.enumeration.OutboxStatus.SENT;
+import static marc.dev.secure_document_system.utils.EmailUtils.getEmailMessage;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxSmtpTests {
+	@RegisterExtension
+	static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+	private final EmailOutboxRepository emailOutboxRepository = mock(EmailOutboxRepository.class);
+	private EmailOutboxDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() {
+		var sender = new JavaMailSenderImpl();
+		sender.setHost("localhost");
+		sender.setPort(ServerSetupTest.SMTP.getPort());
+		sender.setDefaultEncoding("UTF-8");
+		dispatcher = new EmailOutboxDispatcher(emailOutboxRepository, sender, new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(dispatcher, "fromEmail", "noreply@example.com");
+		ReflectionTestUtils.setField(dispatcher, "batchSize", 50);
+		ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+		ReflectionTestUtils.setField(dispatcher, "initialBackoff", 30L);
+		ReflectionTestUtils.setField(dispatcher, "maxBackoff", 3600L);
+	}
+
+	@Test
+	void deliversTheBatchOverSmtpAsUtf8PlainText() throws Exception {
+		var body = getEmailMessage("Zoë Ångström", "http://localhost:8080", "token-1");
+		when(emailOutboxRepository.claimDue(any(), eq(50))).thenReturn(List.of(email(1L, "zoe@example.com", body), email(2L, "sam@example.com", "Second")));
+
+		dispatcher.dispatch();
+
+		assertTrue(greenMail.waitForIncomingEmail(5000, 2));
+		var messages = greenMail.getReceivedMessages();
+		assertEquals(2, messages.length);
+		var message = messages[0];
+		assertArrayEquals(new InternetAddress[] { new InternetAddress("noreply@example.com") }, message.getFrom());
+		assertArrayEquals(new InternetAddress[] { new InternetAddress("zoe@example.com") }, message.getRecipients(Message.RecipientType.TO));
+		assertEquals("New User Account Verification", message.getSubject());
+		assertTrue(message.isMimeType("text/plain"), message.getContentType());
+		assertTrue(message.getContentType().toUpperCase().contains("CHARSET=UTF-8"), message.getContentType());
+		// SMTP sends CRLF line endings
+		var content = ((String) message.getContent()).replace("\r\n", "\n").strip();
+		assertEquals(body, content);
+		assertEquals("sam@example.com", messages[1].getRecipients(Message.RecipientType.TO)[0].toString());
+		verify(emailOutboxRepository).markSent(eq(List.of(1L, 2L)), eq(SENT), any());
+	}
+
+	private static EmailOutboxEntity email(Long id, String recipient, String body) {
+		var email = EmailOutboxEntity.builder()
+				.recipient(recipient)
+				.subject("New User Account Verification")
+				.body(body)
+				.status(PENDING)
+				.attempts(0)
+				.nextAttemptAt(now())
+				.build();
+		email.setId(id);
+		return email;
+	}
+}
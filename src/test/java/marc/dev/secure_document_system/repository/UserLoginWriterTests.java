@@ -0,0 +1,45 @@
+package marc.dev.secure_document_system.repository;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.Collection;
+
+import static marc.dev.secure_document_system.constant.Constants.UPDATE_LOGIN_QUERY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class UserLoginWriterTests {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void flushWritesTheMergedLockStateAndAuditColumns() throws Exception {
+		var jdbcTemplate = mock(JdbcTemplate.class);
+		var writer = new UserLoginWriter(jdbcTemplate);
+		writer.enqueue("user@example.com", 3, null, null);
+		writer.enqueue("user@example.com", null, true, null);
+
+		writer.flush();
+
+		var updates = ArgumentCaptor.forClass(Collection.class);
+		var setter = ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+		verify(jdbcTemplate).batchUpdate(eq(UPDATE_LOGIN_QUERY), updates.capture(), anyInt(), setter.capture());
+		assertEquals(1, updates.getValue().size());
+		var statement = mock(PreparedStatement.class);
+		setter.getValue().setValues(statement, updates.getValue().iterator().next());
+		verify(statement).setObject(1, true, Types.BOOLEAN);
+		verify(statement).setObject(2, 3, Types.INTEGER);
+		verify(statement).setObject(3, null, Types.TIMESTAMP);
+		verify(statement).setLong(4, 0L);
+		verify(statement).setTimestamp(eq(5), any());
+		verify(statement).setString(6, "user@example.com");
+	}
+}
@@ -0,0 +1,105 @@
+package marc.dev.secure_document_system.securtity;
+
+import jakarta.servlet.http.Cookie;
+import marc.dev.secure_document_system.cache.SecurityStampStore;
+import marc.dev.secure_document_system.cache.TokenCache;
+import marc.dev.secure_document_system.dto.User;
+import marc.dev.secure_document_system.service.TokenRevocationService;
+import marc.dev.secure_document_system.service.UserService;
+import marc.dev.secure_document_system.service.impl.JwtServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Base64;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static marc.dev.secure_document_system.constant.Constants.USER_AUTHORITIES;
+import static marc.dev.secure_document_system.enumeration.TokenType.ACCESS;
+import static marc.dev.secure_document_system.enumeration.TokenType.REFRESH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthorizationFilterTests {
+	private static final String SECRET = Base64.getEncoder().encodeToString(new byte[64]);
+
+	private final UserService userService = mock(UserService.class);
+	private final TokenCache tokenCache = new TokenCache(100, 2, MINUTES);
+	private final User user = user();
+	private JwtServiceImpl jwtService;
+	private AuthorizationFilter authorizationFilter;
+
+	@BeforeEach
+	void setUp() {
+		jwtService = new JwtServiceImpl(userService, tokenCache, mock(SecurityStampStore.class), mock(TokenRevocationService.class));
+		jwtService.setSecret(SECRET);
+		jwtService.setExpiration(120L);
+		jwtService.reloadKey();
+		authorizationFilter = new AuthorizationFilter(jwtService, new PublicRouteMatcher());
+		when(userService.getUserByUserId(user.getUserId())).thenReturn(user);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void accessTokenIsParsedOnceAndUserLoadedOncePerRequest() throws Exception {
+		var request = new MockHttpServletRequest("GET", "/documents");
+		request.setCookies(new Cookie(ACCESS.getValue(), jwtService.createToken(user, ACCESS)));
+
+		authorizationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+		var authentication = SecurityContextHolder.getContext().getAuthentication();
+		assertNotNull(authentication);
+		assertSame(user, authentication.getPrincipal());
+		assertEquals(1, tokenCache.stats().requestCount());
+		assertEquals(1, tokenCache.stats().missCount());
+		verify(userService, times(1)).getUserByUserId(user.getUserId());
+	}
+
+	@Test
+	void refreshTokenIsParsedOnceAndSignsOneAccessToken() throws Exception {
+		var spiedJwtService = spy(jwtService);
+		var request = new MockHttpServletRequest("GET", "/documents");
+		request.setCookies(new Cookie(REFRESH.getValue(), jwtService.createToken(user, REFRESH)));
+		var response = new MockHttpServletResponse();
+
+		new AuthorizationFilter(spiedJwtService, new PublicRouteMatcher()).doFilter(request, response, new MockFilterChain());
+
+		var authentication = SecurityContextHolder.getContext().getAuthentication();
+		assertNotNull(authentication);
+		assertTrue(authentication.getAuthorities().stream().anyMatch(authority -> "ROLE_USER".equals(authority.getAuthority())));
+		assertNotNull(response.getCookie(ACCESS.getValue()));
+		assertEquals(1, tokenCache.stats().requestCount());
+		verify(spiedJwtService, times(1)).createToken(user, ACCESS);
+		verify(userService, times(1)).getUserByUserId(user.getUserId());
+	}
+
+	private static User user() {
+		var user = new User();
+		user.setId(1L);
+		user.setUserId("user-id");
+		user.setEmail("user@example.com");
+		user.setRole("USER");
+		user.setAuthorities(USER_AUTHORITIES);
+		user.setSecurityStamp(0L);
+		user.setAccountNonExpired(true);
+		user.setAccountNonLocked(true);
+		user.setCredentialsNonExpired(true);
+		user.setEnabled(true);
+		return user;
+	}
+}
@@ -0,0 +1,28 @@
+package marc.dev.secure_document_system.securtity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PublicRouteMatcherTests {
+	private final PublicRouteMatcher matcher = new PublicRouteMatcher();
+
+	@Test
+	void publicRoutesMatchThemselvesAndEverythingBelow() {
+		assertTrue(matcher.isPublic("/user/login"));
+		assertTrue(matcher.isPublic("/user/verify/account"));
+		assertTrue(matcher.isPublic("/user/resetpassword/reset"));
+		assertTrue(matcher.isPublic("/user/image/1-256.png"));
+	}
+
+	@Test
+	void protectedRoutesDoNotMatch() {
+		assertFalse(matcher.isPublic("/"));
+		assertFalse(matcher.isPublic("/user"));
+		assertFalse(matcher.isPublic("/user/profile"));
+		assertFalse(matcher.isPublic("/user/loginx"));
+		assertFalse(matcher.isPublic("/user/id"));
+		assertFalse(matcher.isPublic("/documents/upload"));
+	}
+}
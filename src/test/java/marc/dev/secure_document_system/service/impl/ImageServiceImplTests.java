@@ -0,0 +1,72 @@
+package marc.dev.secure_document_system.service.impl;
+
+import marc.dev.secure_document_system.exception.ApiException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class ImageServiceImplTests {
+	private final ThreadPoolTaskExecutor imageTaskExecutor = mock(ThreadPoolTaskExecutor.class);
+	private final ImageServiceImpl imageService = new ImageServiceImpl(imageTaskExecutor);
+
+	@ParameterizedTest
+	@ValueSource(strings = { "report.pdf", ".upload-123.part", "../application.yml", "0b6c5f3e-1d2a-4c7e-9f1a-2b3c4d5e6f70.jpg", "0b6c5f3e-1d2a-4c7e-9f1a-2b3c4d5e6f70-x.png" })
+	void getProfileImageRejectsAnythingButPhotoNames(String filename) {
+		var exception = assertThrows(ApiException.class, () -> imageService.getProfileImage(filename));
+		assertEquals("Invalid image name", exception.getMessage());
+	}
+
+	@Test
+	void getProfileImageAcceptsOriginalAndVariantNames() {
+		for(var filename : new String[] { "0b6c5f3e-1d2a-4c7e-9f1a-2b3c4d5e6f70.png", "0b6c5f3e-1d2a-4c7e-9f1a-2b3c4d5e6f70-256.png" }) {
+			var exception = assertThrows(ApiException.class, () -> imageService.getProfileImage(filename));
+			assertEquals("Image not found", exception.getMessage());
+		}
+	}
+
+	@Test
+	void saveProfileImageRejectsOversizedDimensionsBeforeDecoding() throws IOException {
+		var file = new MockMultipartFile("file", "photo.png", "image/png", pngDeclaring(50_000, 50_000));
+		var exception = assertThrows(ApiException.class, () -> imageService.saveProfileImage("0b6c5f3e-1d2a-4c7e-9f1a-2b3c4d5e6f70", file));
+		assertEquals("Image is too large", exception.getMessage());
+		verifyNoInteractions(imageTaskExecutor);
+	}
+
+	@Test
+	void isVariantOnlyForSizedNames() {
+		assertTrue(imageService.isVariant(new FileSystemResource("0b6c5f3e-1d2a-4c7e-9f1a-2b3c4d5e6f70-256.png")));
+		assertFalse(imageService.isVariant(new FileSystemResource("0b6c5f3e-1d2a-4c7e-9f1a-2b3c4d5e6f70.png")));
+	}
+
+	/**
+	 * A 1x1 PNG whose IHDR chunk is rewritten to declare the given size. The pixel data stays
+	 * one pixel, so only a reader that trusts the header would try to allocate the full image.
+	 */
+	private static byte[] pngDeclaring(int width, int height) throws IOException {
+		var out = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB), "png", out);
+		var png = ByteBuffer.wrap(out.toByteArray());
+		png.putInt(16, width).putInt(20, height);
+		var crc = new CRC32();
+		crc.update(png.array(), 12, 17);
+		png.putInt(29, (int) crc.getValue());
+		return png.array();
+	}
+}
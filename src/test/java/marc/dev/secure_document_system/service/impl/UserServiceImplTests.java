@@ -0,0 +1,123 @@
+package marc.dev.secure_document_system.service.impl;
+
+import marc.dev.secure_document_system.cache.CacheStore;
+import marc.dev.secure_document_system.cache.LoginAttemptTracker;
+import marc.dev.secure_document_system.cache.RoleRegistry;
+import marc.dev.secure_document_system.cache.SecurityStampStore;
+import marc.dev.secure_document_system.domain.RequestContext;
+import marc.dev.secure_document_system.entity.CredentialEntity;
+import marc.dev.secure_document_system.entity.RoleEntity;
+import marc.dev.secure_document_system.entity.UserEntity;
+import marc.dev.secure_document_system.enumeration.Authority;
+import marc.dev.secure_document_system.repository.ConfirmationRepository;
+import marc.dev.secure_document_system.repository.CredentialRepository;
+import marc.dev.secure_document_system.repository.UserLoginWriter;
+import marc.dev.secure_document_system.repository.UserRepository;
+import marc.dev.secure_document_system.securtity.TotpVerifier;
+import marc.dev.secure_document_system.service.ImageService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+
+import static java.time.LocalDateTime.now;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserServiceImplTests {
+	private static final int USERS = 5;
+
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private CredentialRepository credentialRepository;
+	@Autowired
+	private TestEntityManager entityManager;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	private UserServiceImpl userService;
+	private Statistics statistics;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		RequestContext.setUserId(1L);
+		userService = new UserServiceImpl(userRepository, mock(RoleRegistry.class), credentialRepository, mock(ConfirmationRepository.class),
+				mock(PasswordEncoder.class), mock(LoginAttemptTracker.class), mock(CacheStore.class), mock(UserLoginWriter.class),
+				mock(SecurityStampStore.class), mock(TotpVerifier.class), mock(ImageService.class), mock(ApplicationEventPublisher.class));
+		statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContext.start();
+	}
+
+	@Test
+	void getUsersByIdLoadsEveryUserWithOneStatement() {
+		var role = entityManager.persist(RoleEntity.builder().name(Authority.USER.name()).authorities(Authority.USER).build());
+		var ids = new ArrayList<Long>();
+		for(var index = 0; index < USERS; index++) {
+			var userEntity = entityManager.persist(UserEntity.builder()
+					.userId("user-" + index)
+					.firstName("First")
+					.lastName("Last")
+					.email("user" + index + "@example.com")
+					.lastLogin(now())
+					.role(role)
+					.build());
+			entityManager.persist(new CredentialEntity(userEntity, "password"));
+			ids.add(userEntity.getId());
+		}
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+
+		var users = userService.getUsersById(ids);
+
+		assertEquals(USERS, users.size());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void loginWriteBehindMatchesTheStoredEmail() {
+		var role = entityManager.persist(RoleEntity.builder().name(Authority.USER.name()).authorities(Authority.USER).build());
+		var userEntity = entityManager.persist(UserEntity.builder()
+				.userId("user-id")
+				.firstName("First")
+				.lastName("Last")
+				.email("user@example.com")
+				.lastLogin(now())
+				.accountNonLocked(true)
+				.role(role)
+				.build());
+		entityManager.persist(new CredentialEntity(userEntity, "password"));
+		entityManager.flush();
+		entityManager.clear();
+		var loginWriter = new UserLoginWriter(jdbcTemplate);
+		ReflectionTestUtils.setField(loginWriter, "batchSize", 100);
+
+		userService.updateUser("user-id", "First", "Last", " User@Example.COM ", null, null);
+		entityManager.flush();
+		loginWriter.enqueue(LoginAttemptTracker.normalize(" USER@example.com"), 6, false, null);
+		loginWriter.flush();
+		entityManager.clear();
+
+		var stored = userRepository.findUserByUserId("user-id").orElseThrow();
+		assertEquals("user@example.com", stored.getEmail());
+		assertEquals(6, stored.getLoginAttempts());
+		assertFalse(stored.isAccountNonLocked());
+	}
+}
@@ -0,0 +1,99 @@
+package marc.dev.secure_document_system.utils;
+
+import marc.dev.secure_document_system.entity.Auditable;
+import marc.dev.secure_document_system.entity.CredentialEntity;
+import marc.dev.secure_document_system.entity.DocumentEntity;
+import marc.dev.secure_document_system.entity.RoleEntity;
+import marc.dev.secure_document_system.entity.UserEntity;
+import marc.dev.secure_document_system.enumeration.Authority;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Modifier;
+
+import static java.time.LocalDateTime.now;
+import static marc.dev.secure_document_system.utils.DocumentUtils.fromDocumentEntity;
+import static marc.dev.secure_document_system.utils.UserUtils.fromUserEntity;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DtoMappingTests {
+
+	@Test
+	void fromUserEntityMapsEveryUserField() throws IllegalAccessException {
+		assertAllFieldsMapped(fromUserEntity(userEntity(), roleEntity(), credentialEntity()));
+	}
+
+	@Test
+	void fromDocumentEntityMapsEveryDocumentField() throws IllegalAccessException {
+		var user = fromUserEntity(userEntity(), roleEntity(), credentialEntity());
+		assertAllFieldsMapped(fromDocumentEntity(documentEntity(), user, user));
+	}
+
+	private static UserEntity userEntity() {
+		var userEntity = UserEntity.builder()
+				.userId("user-id")
+				.firstName("First")
+				.lastName("Last")
+				.email("user@example.com")
+				.loginAttempts(1)
+				.lastLogin(now())
+				.phone("555-0100")
+				.bio("bio")
+				.imageUrl("image-url")
+				.accountNonExpired(true)
+				.accountNonLocked(true)
+				.enabled(true)
+				.mfa(true)
+				.securityStamp(1L)
+				.build();
+		audit(userEntity);
+		return userEntity;
+	}
+
+	private static RoleEntity roleEntity() {
+		return RoleEntity.builder().name(Authority.USER.name()).authorities(Authority.USER).build();
+	}
+
+	private static CredentialEntity credentialEntity() {
+		var credentialEntity = new CredentialEntity(null, "password");
+		audit(credentialEntity);
+		return credentialEntity;
+	}
+
+	private static DocumentEntity documentEntity() {
+		var documentEntity = DocumentEntity.builder()
+				.documentId("document-id")
+				.name("name")
+				.description("description")
+				.uri("uri")
+				.size(1L)
+				.formattedSize("1 B")
+				.icon("icon")
+				.extension("pdf")
+				.checksum("checksum")
+				.build();
+		audit(documentEntity);
+		documentEntity.setReferenceId("reference-id");
+		return documentEntity;
+	}
+
+	private static void audit(Auditable auditable) {
+		auditable.setId(1L);
+		auditable.setCreatedBy(1L);
+		auditable.setUpdatedBy(1L);
+		auditable.setCreatedAt(now());
+		auditable.setUpdatedAt(now());
+	}
+
+	private static void assertAllFieldsMapped(Object dto) throws IllegalAccessException {
+		for(var field : dto.getClass().getDeclaredFields()) {
+			if(Modifier.isStatic(field.getModifiers())) { continue; }
+			field.setAccessible(true);
+			var value = field.get(dto);
+			assertNotNull(value, field.getName() + " was not mapped");
+			if(value instanceof Boolean flag) { assertTrue(flag, field.getName() + " was not mapped"); }
+			if(value instanceof Number number) { assertNotEquals(0L, number.longValue(), field.getName() + " was not mapped"); }
+		}
+	}
+}